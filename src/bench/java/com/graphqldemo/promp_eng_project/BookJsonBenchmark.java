@@ -0,0 +1,62 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a page of books, as GET /api/books and /api/books/search do, with a writer resolved once
+ * (as the message converter caches it).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookJsonBenchmark {
+
+    @Param({"50", "500"})
+    public int books;
+
+    private final JsonMapper mapper = new JsonMapper();
+    private ObjectWriter writer;
+    private List<BookDTO> page;
+
+    @Setup
+    public void setUp() {
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, BookDTO.class));
+        page = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            AuthorDTO author = new AuthorDTO((long) i % 20, "Author " + i % 20, "Writes about topic " + i % 20, null);
+            page.add(new BookDTO((long) i, "Book title number " + i, author, new BigDecimal(10 + i % 90 + ".99")));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public String serializePageToString() {
+        return writer.writeValueAsString(page);
+    }
+}
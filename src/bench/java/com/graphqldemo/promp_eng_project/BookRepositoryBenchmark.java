@@ -0,0 +1,110 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.BookImportResultDTO;
+import com.graphqldemo.promp_eng_project.dto.BookPageDTO;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookService read paths end to end (transaction, Hibernate, JDBC) against the embedded H2 database of the
+ * test profile, seeded with {@link #BOOKS} books by {@link #AUTHORS} authors. The caches and in-memory
+ * indexes are off in that profile, so every call reaches the database; absolute numbers are H2's, the
+ * point is comparing commits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookRepositoryBenchmark {
+
+    static final int BOOKS = 10_000;
+    static final int AUTHORS = 100;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private long[] bookIds;
+    private List<Long> authorIds;
+    private String secondPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PrompEngProjectApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN", "catalog.stats.enabled=false", "catalog.title-filter.enabled=false")
+                .run();
+        bookService = context.getBean(BookService.class);
+
+        List<BookDTO> books = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            AuthorDTO author = new AuthorDTO(null, "Author " + i % AUTHORS, null, null);
+            books.add(new BookDTO(null, "Book title number " + i, author, new BigDecimal(10 + i % 90 + ".99")));
+        }
+        bookIds = bookService.importBooks(books).getResults().stream()
+                .map(BookImportResultDTO::getId)
+                .mapToLong(Long::longValue)
+                .toArray();
+        authorIds = bookService.getBooksPage(null, 500, "id").getItems().stream()
+                .map(book -> book.getAuthor().getId())
+                .distinct()
+                .limit(10)
+                .toList();
+        secondPage = bookService.getBooksPage(null, 50, "price").getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookDTO getBookById() {
+        long id = bookIds[ThreadLocalRandom.current().nextInt(bookIds.length)];
+        return bookService.getBookById(id).orElseThrow();
+    }
+
+    @Benchmark
+    public BookPageDTO firstPageByPrice() {
+        return bookService.getBooksPage(null, 50, "price");
+    }
+
+    @Benchmark
+    public BookPageDTO nextPageByPrice() {
+        return bookService.getBooksPage(secondPage, 50, "price");
+    }
+
+    @Benchmark
+    public List<BookDTO> searchByTitle() {
+        return bookService.findBooksByTitleContaining("number 12", 50);
+    }
+
+    @Benchmark
+    public Map<Long, List<BookDTO>> booksOfTenAuthors() {
+        return bookService.getBooksByAuthorIds(authorIds);
+    }
+}
@@ -0,0 +1,81 @@
+package com.graphqldemo.promp_eng_project;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks which of {@code n} seeded keys an operation touches: every key equally often, or zipfian, where a
+ * few hot keys take most of the traffic as on a real catalog.
+ */
+interface KeyDistribution {
+
+    /** A key index in {@code [0, n)}. Thread-safe. */
+    int next();
+
+    static KeyDistribution of(String name, int n, double exponent) {
+        return switch (name) {
+            case "uniform" -> () -> ThreadLocalRandom.current().nextInt(n);
+            case "zipfian" -> new Zipfian(n, exponent);
+            default -> throw new IllegalArgumentException("load.keys must be uniform or zipfian, not " + name);
+        };
+    }
+
+    /**
+     * Gray et al.'s zipfian generator ("Quickly Generating Billion-Record Synthetic Databases", as used by
+     * YCSB), constant time per key after an O(n) setup. Rank 0 is the hottest; ranks are mapped through a
+     * fixed shuffle so the hot keys are spread over the keyspace instead of being the oldest rows.
+     */
+    final class Zipfian implements KeyDistribution {
+
+        private final int n;
+        private final double theta;
+        private final double alpha;
+        private final double zetan;
+        private final double eta;
+        private final double halfPowTheta;
+        private final int[] keyOfRank;
+
+        Zipfian(int n, double theta) {
+            if (n < 1) throw new IllegalArgumentException("at least one key is required");
+            if (theta <= 0 || theta >= 1) throw new IllegalArgumentException("load.zipf-exponent must be in (0, 1)");
+            this.n = n;
+            this.theta = theta;
+            this.alpha = 1 / (1 - theta);
+            this.zetan = zeta(n, theta);
+            this.eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta(2, theta) / zetan);
+            this.halfPowTheta = 1 + Math.pow(0.5, theta);
+            this.keyOfRank = shuffled(n);
+        }
+
+        @Override
+        public int next() {
+            double u = ThreadLocalRandom.current().nextDouble();
+            double uz = u * zetan;
+            int rank;
+            if (uz < 1) rank = 0;
+            else if (uz < halfPowTheta) rank = 1;
+            else rank = (int) (n * Math.pow(eta * u - eta + 1, alpha));
+            return keyOfRank[Math.min(rank, n - 1)];
+        }
+
+        private static double zeta(int n, double theta) {
+            double sum = 0;
+            for (int i = 1; i <= n; i++) sum += 1 / Math.pow(i, theta);
+            return sum;
+        }
+
+        /** Same seed every run, so the hot set is comparable between runs. */
+        private static int[] shuffled(int n) {
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) keys[i] = i;
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = keys[i];
+                keys[i] = keys[j];
+                keys[j] = tmp;
+            }
+            return keys;
+        }
+    }
+}
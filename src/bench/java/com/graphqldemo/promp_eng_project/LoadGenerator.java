@@ -0,0 +1,329 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.BookImportResultDTO;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load against the REST API, for sizing a deployment. Starts the application with its production
+ * settings on an embedded H2 database and a random port, seeds {@code load.books} books by {@code load.authors}
+ * authors, then sends a mix of reads by id, title searches, list pages, creates and discounts at a fixed
+ * {@code load.rate} for {@code load.warmup} plus {@code load.duration}.
+ *
+ * <p>Requests go out on schedule whether or not earlier ones have answered, as independent clients would
+ * send them. Latency is measured from the time a request was due, not from when it was actually sent, so
+ * a stall shows up in every request queued behind it (coordinated-omission correction); the uncorrected
+ * send-to-response time is reported next to it. A request dropped because {@code load.max-outstanding} were
+ * already waiting never gets an answer; it goes into the corrected distribution as due but still unanswered
+ * when the run ended, the least latency it can have had. Per operation it prints throughput and p50/p99/p99.9/max,
+ * and writes the full corrected distributions as HdrHistogram .hgrm files to {@code load.report-dir}.
+ *
+ * <p>Options are Spring properties, so any application setting can be overridden the same way:
+ * <pre>
+ * mvn -Pbenchmark verify -Djmh.skip=true -Dloadtest.skip=false \
+ *     -Dloadtest.args="--load.rate=500 --load.keys=uniform --catalog.group-commit.enabled=true"
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    enum Operation { GET, SEARCH, LIST, CREATE, DISCOUNT }
+
+    /** Production settings apart from the database; command-line arguments override these. */
+    private static final String[] DEFAULTS = {
+            "server.port=0",
+            "spring.datasource.url=jdbc:h2:mem:load;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+            "spring.datasource.driver-class-name=org.h2.Driver",
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "logging.level.root=WARN",
+            // under overload every request is slow; the report covers it
+            "logging.level.com.graphqldemo.promp_eng_project.config.RequestMetricsFilter=ERROR",
+    };
+
+    private final int rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<Operation, Integer> mix;
+    private final KeyDistribution keys;
+    private final int maxOutstanding;
+    private final Duration timeout;
+    private final Path reportDir;
+
+    private final HttpClient client;
+    private final URI base;
+    private final long[] bookIds;
+    private final long[] authorIds;
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    LoadGenerator(Environment env, long[] bookIds, long[] authorIds) {
+        this.rate = env.getProperty("load.rate", Integer.class, 200);
+        this.warmup = env.getProperty("load.warmup", Duration.class, Duration.ofSeconds(10));
+        this.duration = env.getProperty("load.duration", Duration.class, Duration.ofSeconds(30));
+        this.mix = parseMix(env.getProperty("load.mix", "get:60,search:15,list:15,create:5,discount:5"));
+        this.keys = KeyDistribution.of(env.getProperty("load.keys", "zipfian"), bookIds.length,
+                env.getProperty("load.zipf-exponent", Double.class, 0.99));
+        this.maxOutstanding = env.getProperty("load.max-outstanding", Integer.class, 10_000);
+        this.timeout = env.getProperty("load.timeout", Duration.class, Duration.ofSeconds(30));
+        this.reportDir = Path.of(env.getProperty("load.report-dir", "target/load-test"));
+        if (rate < 1) throw new IllegalArgumentException("load.rate must be positive");
+
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(timeout)
+                .build();
+        this.base = URI.create("http://localhost:" + env.getRequiredProperty("local.server.port"));
+        this.bookIds = bookIds;
+        this.authorIds = authorIds;
+        for (Operation op : mix.keySet()) stats.put(op, new Stats());
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PrompEngProjectApplication.class)
+                .properties(DEFAULTS)
+                .run(args);
+        try {
+            Environment env = context.getEnvironment();
+            int books = env.getProperty("load.books", Integer.class, 10_000);
+            int authors = env.getProperty("load.authors", Integer.class, 100);
+            BookService bookService = context.getBean(BookService.class);
+            long[] bookIds = seed(bookService, books, authors);
+            long[] authorIds = authorIds(bookService, bookIds, authors);
+
+            LoadGenerator generator = new LoadGenerator(env, bookIds, authorIds);
+            generator.run();
+            generator.report(books, env.getProperty("load.keys", "zipfian"));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static long[] seed(BookService bookService, int books, int authors) {
+        List<BookDTO> dtos = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            AuthorDTO author = new AuthorDTO(null, "Author " + i % authors, null, null);
+            dtos.add(new BookDTO(null, "Book title number " + i, author, new BigDecimal(10 + i % 90 + ".99")));
+        }
+        return bookService.importBooks(dtos).getResults().stream()
+                .map(BookImportResultDTO::getId)
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    /** Books i and i + authors share an author, so the first {@code authors} books cover them all. */
+    private static long[] authorIds(BookService bookService, long[] bookIds, int authors) {
+        return Arrays.stream(bookIds, 0, Math.min(authors, bookIds.length))
+                .mapToObj(id -> bookService.getBookById(id).orElseThrow())
+                .mapToLong(book -> book.getAuthor().getId())
+                .distinct()
+                .toArray();
+    }
+
+    void run() throws InterruptedException {
+        Operation[] ops = mix.keySet().toArray(Operation[]::new);
+        int[] cumulative = new int[ops.length];
+        int total = 0;
+        for (int i = 0; i < ops.length; i++) cumulative[i] = total += mix.get(ops[i]);
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        double interval = 1e9 / rate;
+
+        for (long i = 0; ; i++) {
+            long due = start + (long) (i * interval);
+            if (due >= end) break;
+            long wait = due - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            int pick = ThreadLocalRandom.current().nextInt(total);
+            int k = 0;
+            while (cumulative[k] <= pick) k++;
+            Operation op = ops[k];
+            boolean measured = due >= measureFrom;
+
+            if (outstanding.get() >= maxOutstanding) {
+                // the server is this far behind; sending more would only measure the client
+                if (measured) stats.get(op).drop(due);
+                continue;
+            }
+            outstanding.incrementAndGet();
+            Thread.ofVirtual().name("load-" + op.name().toLowerCase(Locale.ROOT)).start(() -> {
+                try {
+                    send(op, due, measured);
+                } finally {
+                    outstanding.decrementAndGet();
+                }
+            });
+        }
+
+        long drainBy = System.nanoTime() + timeout.toNanos();
+        while (outstanding.get() > 0 && System.nanoTime() < drainBy) Thread.sleep(10);
+
+        // leaving dropped requests out would report the overload as the best latencies of the run
+        long finished = System.nanoTime();
+        for (Stats s : stats.values()) s.recordDropped(finished);
+    }
+
+    private void send(Operation op, long due, boolean measured) {
+        HttpRequest request = request(op);
+        long sent = System.nanoTime();
+        boolean ok;
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            ok = status >= 200 && status < 300;
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long done = System.nanoTime();
+        if (measured) stats.get(op).record(done - due, done - sent, ok);
+    }
+
+    private HttpRequest request(Operation op) {
+        long id = bookIds[keys.next()];
+        HttpRequest.Builder builder = switch (op) {
+            case GET -> HttpRequest.newBuilder(base.resolve("/api/books/" + id));
+            // "number 12" also matches 120-129, 1200-1299, ...: a handful of hits like a real query
+            case SEARCH -> HttpRequest.newBuilder(base.resolve("/api/books/search?title=number%20" + (id % 1000) + "&limit=20"));
+            case LIST -> HttpRequest.newBuilder(base.resolve("/api/books?limit=50&sort=price"));
+            case CREATE -> json(HttpRequest.newBuilder(base.resolve("/api/books")), "POST",
+                    "{\"title\":\"Load " + runId + " book " + created.incrementAndGet() + "\","
+                            + "\"author\":{\"id\":" + authorIds[ThreadLocalRandom.current().nextInt(authorIds.length)] + "},"
+                            + "\"price\":19.99}");
+            case DISCOUNT -> json(HttpRequest.newBuilder(base.resolve("/api/books/" + id + "/discount")), "PUT",
+                    "{\"discountPercentage\":1}");
+        };
+        return builder.timeout(timeout).build();
+    }
+
+    private static HttpRequest.Builder json(HttpRequest.Builder builder, String method, String body) {
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    void report(int books, String distribution) throws IOException {
+        double seconds = duration.toNanos() / 1e9;
+        StringWriter text = new StringWriter();
+        PrintWriter out = new PrintWriter(text);
+        out.printf(Locale.ROOT, "Open loop at %d req/s for %s after %s warmup, %s keys over %d books%n",
+                rate, duration, warmup, distribution, books);
+        out.printf(Locale.ROOT, "%-9s %-11s %8s %7s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "latency", "count", "errors", "dropped", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        Files.createDirectories(reportDir);
+        long count = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            String name = entry.getKey().name().toLowerCase(Locale.ROOT);
+            Stats s = entry.getValue();
+            Histogram corrected = s.corrected.copy();
+            count += corrected.getTotalCount() - s.dropped;
+            line(out, name, "corrected", corrected, s, seconds);
+            line(out, "", "service", s.uncorrected.copy(), null, seconds);
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(reportDir.resolve(name + ".hgrm")))) {
+                corrected.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        out.printf(Locale.ROOT, "total %.1f req/s completed; \"corrected\" is measured from when each request was due,"
+                + " \"service\" from when it was sent; \"corrected\" includes dropped requests%n", count / seconds);
+        out.flush();
+
+        System.out.print(text);
+        Files.writeString(reportDir.resolve("summary.txt"), text.toString());
+    }
+
+    private static void line(PrintWriter out, String name, String kind, Histogram h, Stats s, double seconds) {
+        out.printf(Locale.ROOT, "%-9s %-11s %8d %7s %8s %9s %9.2f %9.2f %9.2f %9.2f%n",
+                name, kind, h.getTotalCount(),
+                s == null ? "" : Long.toString(s.errors.sum()),
+                s == null ? "" : Integer.toString(s.dropped),
+                s == null ? "" : String.format(Locale.ROOT, "%.1f", (h.getTotalCount() - s.dropped) / seconds),
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(99)),
+                ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    /** {@code get:60,search:15} to weights; operations left out are not sent. */
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("load.mix entries look like get:60, not " + part);
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight < 0) throw new IllegalArgumentException("load.mix weights must not be negative");
+            if (weight > 0) mix.put(Operation.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("load.mix has no operations");
+        return mix;
+    }
+
+    /**
+     * Latencies in microseconds; histograms resize themselves, so no upper bound needs guessing. Dropped
+     * requests are only touched by the thread running the schedule.
+     */
+    private static final class Stats {
+        final Histogram corrected = new ConcurrentHistogram(3);
+        final Histogram uncorrected = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+        private long[] droppedDue = new long[16];
+        int dropped;
+
+        void drop(long due) {
+            if (dropped == droppedDue.length) droppedDue = Arrays.copyOf(droppedDue, dropped * 2);
+            droppedDue[dropped++] = due;
+        }
+
+        /** Each dropped request as still unanswered at {@code finishedNanos}. */
+        void recordDropped(long finishedNanos) {
+            for (int i = 0; i < dropped; i++) {
+                corrected.recordValue(TimeUnit.NANOSECONDS.toMicros(finishedNanos - droppedDue[i]));
+            }
+        }
+
+        void record(long fromDueNanos, long fromSentNanos, boolean ok) {
+            corrected.recordValue(TimeUnit.NANOSECONDS.toMicros(fromDueNanos));
+            uncorrected.recordValue(TimeUnit.NANOSECONDS.toMicros(fromSentNanos));
+            if (!ok) errors.increment();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares a Tomcat-sized platform thread pool with a virtual thread per request on a blocking database
+ * workload. Each request either hits the cache (no I/O) or, with probability {@code missRate}, runs a query
+ * that blocks for {@code dbMillis} inside an embedded H2 database through a Hikari pool of {@code poolSize}.
+ * <p>
+ * With virtual threads every request is started at once, so the pool's queue takes the whole burst: a
+ * request that waits longer than {@code connectionTimeoutMillis} for a connection fails, and is counted as
+ * an error. Run it with the application's {@code spring.datasource.hikari.connection-timeout} to see
+ * whether that setting holds up under the burst.
+ * <p>
+ * Built with the benchmark profile; run {@link #main} from the IDE, or with
+ * {@code mvn -Pbenchmark verify -Djmh.skip=true -Dvtbench.skip=false -Dvtbench.args="..."}.
+ * Arguments: requests, platformThreads, poolSize, dbMillis, missRate, connectionTimeoutMillis
+ * (defaults 20000 200 20 20 0.2 30000).
+ */
+public class VirtualThreadBenchmark {
+
+    /** Called by H2 as {@code SLEEP(ms)}; stands in for a slow query. */
+    public static int sleep(int millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return millis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int platformThreads = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int dbMillis = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        double missRate = args.length > 4 ? Double.parseDouble(args[4]) : 0.2;
+        long connectionTimeoutMillis = args.length > 5 ? Long.parseLong(args[5]) : 30_000;
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:vt_bench;DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(connectionTimeoutMillis);
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("CREATE ALIAS IF NOT EXISTS SLEEP FOR '" + VirtualThreadBenchmark.class.getName() + ".sleep'");
+            }
+            System.out.printf("%d requests, %.0f%% blocking %d ms in the database, pool of %d connections, %d ms connection timeout%n",
+                    requests, missRate * 100, dbMillis, poolSize, connectionTimeoutMillis);
+
+            // warm-up, then the measured runs
+            run("warm-up", Executors.newVirtualThreadPerTaskExecutor(), dataSource, requests / 10, dbMillis, missRate);
+            run("platform(" + platformThreads + ")", Executors.newFixedThreadPool(platformThreads), dataSource,
+                    requests, dbMillis, missRate);
+            run("virtual", Executors.newVirtualThreadPerTaskExecutor(), dataSource, requests, dbMillis, missRate);
+        }
+    }
+
+    private static void run(String name, ExecutorService executor, HikariDataSource dataSource,
+                            int requests, int dbMillis, double missRate) throws Exception {
+        long[] latencies = new long[requests];
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        try (executor) {
+            List<Future<?>> futures = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                int slot = i;
+                long submitted = System.nanoTime();
+                boolean miss = ThreadLocalRandom.current().nextDouble() < missRate;
+                futures.add(executor.submit(() -> {
+                    try {
+                        if (miss) query(dataSource, dbMillis);
+                    } catch (SQLTransientConnectionException e) {
+                        // timed out waiting for a connection: the request would have been a 500
+                        errors.increment();
+                    }
+                    // measured from submission, so time queued for a worker thread counts
+                    latencies[slot] = System.nanoTime() - submitted;
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        System.out.printf("%-15s %8.0f req/s   p50 %7.1f ms   p99 %7.1f ms   max %7.1f ms   errors %d%n", name,
+                requests / (elapsed / 1e9), millis(latencies, 0.50), millis(latencies, 0.99),
+                latencies[latencies.length - 1] / 1e6, errors.sum());
+    }
+
+    private static void query(HikariDataSource dataSource, int dbMillis) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT SLEEP(?)")) {
+            statement.setInt(1, dbMillis);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+            }
+        }
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(quantile * (sorted.length - 1)))] / 1e6;
+    }
+}
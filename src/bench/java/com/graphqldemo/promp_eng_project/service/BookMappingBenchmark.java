@@ -0,0 +1,81 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.entity.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping and discount arithmetic, the CPU work BookService does per row. Lives in the
+ * service package to reach the package-private helpers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookMappingBenchmark {
+
+    @Param({"50", "500"})
+    public int books;
+
+    private List<Book> entities;
+    private BigDecimal[] prices;
+    private BigDecimal discount;
+
+    @Setup
+    public void setUp() {
+        entities = new ArrayList<>(books);
+        prices = new BigDecimal[books];
+        for (int i = 0; i < books; i++) {
+            Author author = new Author();
+            author.setId((long) i % 20);
+            author.setName("Author " + i % 20);
+            author.setBio("Writes about topic " + i % 20);
+            Book book = new Book();
+            book.setId((long) i);
+            book.setTitle("Book title number " + i);
+            book.setAuthor(author);
+            book.setPrice(new BigDecimal(10 + i % 90 + "." + (10 + i % 90)));
+            entities.add(book);
+            prices[i] = book.getPrice();
+        }
+        discount = new BigDecimal("12.5");
+    }
+
+    @Benchmark
+    public void convertToDTO(Blackhole blackhole) {
+        for (Book book : entities) {
+            blackhole.consume(BookService.convertToDTO(book));
+        }
+    }
+
+    @Benchmark
+    public List<BookDTO> convertListToDTOs() {
+        return entities.stream().map(BookService::convertToDTO).toList();
+    }
+
+    @Benchmark
+    public void discountedPrice(Blackhole blackhole) {
+        for (BigDecimal price : prices) {
+            blackhole.consume(BookService.discountedPrice(price, discount));
+        }
+    }
+}
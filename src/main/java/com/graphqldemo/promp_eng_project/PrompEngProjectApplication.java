@@ -2,8 +2,10 @@ package com.graphqldemo.promp_eng_project;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PrompEngProjectApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,129 @@
+package com.graphqldemo.promp_eng_project.config;
+
+import graphql.GraphQLContext;
+import graphql.GraphQLError;
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.CoercedVariables;
+import graphql.language.FloatValue;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.GraphQLTypeUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.DataFetcherExceptionResolver;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Limits on what a single GraphQL document may ask of the database, checked before execution, the
+ * mapping of validation failures to client errors, and the {@code Decimal} scalar for money.
+ */
+@Configuration(proxyBeanMethods = false)
+public class GraphQlConfig {
+
+    /**
+     * {@link BigDecimal} in and out, never through a double: literals are read from their digits and results
+     * are handed to the JSON encoder as they are, so a price has the same digits and scale as over REST.
+     */
+    static final GraphQLScalarType DECIMAL = GraphQLScalarType.newScalar()
+            .name("Decimal")
+            .coercing(new Coercing<BigDecimal, BigDecimal>() {
+                @Override
+                public BigDecimal serialize(Object result, GraphQLContext context, Locale locale) {
+                    if (result instanceof BigDecimal decimal) return decimal;
+                    throw new CoercingSerializeException("Expected a BigDecimal but was " + result.getClass().getName());
+                }
+
+                @Override
+                public BigDecimal parseValue(Object input, GraphQLContext context, Locale locale) {
+                    try {
+                        if (input instanceof BigDecimal decimal) return decimal;
+                        // variables arrive from JSON; a string keeps every digit the client sent
+                        if (input instanceof Number || input instanceof String) return new BigDecimal(input.toString());
+                    } catch (NumberFormatException e) {
+                        // reported below
+                    }
+                    throw new CoercingParseValueException("Expected a decimal number but was " + input);
+                }
+
+                @Override
+                public BigDecimal parseLiteral(graphql.language.Value<?> input, CoercedVariables variables, GraphQLContext context,
+                                               Locale locale) {
+                    if (input instanceof FloatValue value) return value.getValue();
+                    if (input instanceof IntValue value) return new BigDecimal(value.getValue());
+                    if (input instanceof StringValue value) {
+                        try {
+                            return new BigDecimal(value.getValue());
+                        } catch (NumberFormatException e) {
+                            // reported below
+                        }
+                    }
+                    throw new CoercingParseLiteralException("Expected a decimal number but was " + input);
+                }
+            })
+            .build();
+
+    @Bean
+    public RuntimeWiringConfigurer decimalScalarConfigurer() {
+        return wiring -> wiring.scalar(DECIMAL);
+    }
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(
+            @Value("${catalog.graphql.max-depth:8}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    /**
+     * Each field costs 1 plus its selection times its fan-out: the {@code limit} argument where the field
+     * has one, {@code list-fan-out} for other list fields, 1 otherwise. The cost is thus a rough upper
+     * bound on the number of objects the response can contain.
+     */
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${catalog.graphql.max-complexity:5000}") int maxComplexity,
+            @Value("${catalog.graphql.list-fan-out:10}") int listFanOut) {
+        FieldComplexityCalculator calculator = (environment, childComplexity) -> {
+            Object limit = environment.getArguments().get("limit");
+            int fanOut;
+            if (limit instanceof Integer n) {
+                fanOut = n;
+            } else if (GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()))) {
+                fanOut = listFanOut;
+            } else {
+                fanOut = 1;
+            }
+            return 1 + childComplexity * Math.max(fanOut, 1);
+        };
+        return new MaxQueryComplexityInstrumentation(maxComplexity, calculator);
+    }
+
+    @Bean
+    public DataFetcherExceptionResolver badRequestExceptionResolver() {
+        return new DataFetcherExceptionResolverAdapter() {
+            @Override
+            protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+                if (!(ex instanceof IllegalArgumentException)) return null;
+                return GraphQLError.newError()
+                        .errorType(ErrorType.BAD_REQUEST)
+                        .message(ex.getMessage())
+                        .path(env.getExecutionStepInfo().getPath())
+                        .location(env.getField().getSourceLocation())
+                        .build();
+            }
+        };
+    }
+}
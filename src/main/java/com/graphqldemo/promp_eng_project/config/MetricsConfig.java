@@ -0,0 +1,41 @@
+package com.graphqldemo.promp_eng_project.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Instrumentation beyond what the actuator provides out of the box. Already there once the actuator is on
+ * the classpath: {@code http.server.requests} per endpoint, {@code hikaricp.connections.acquire} (pool
+ * wait) and {@code catalog.service} per {@code BookService} method via {@code @Timed}; percentiles for
+ * them are configured in application.properties. Added here: per-request SQL statement counts and time,
+ * transaction durations, and the slow-request log.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlRecorderHibernateProperties() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, SqlRecorder.INSPECTOR);
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlRecorder.Listener.class.getName());
+        };
+    }
+
+    @Bean
+    public RequestMetricsFilter requestMetricsFilter(MeterRegistry meterRegistry,
+                                                     @Value("${catalog.metrics.slow-request-threshold:PT0.5S}") Duration slowRequestThreshold) {
+        return new RequestMetricsFilter(meterRegistry, slowRequestThreshold);
+    }
+
+    /** Picked up by Boot's transaction manager customization, so it sees every transaction. */
+    @Bean
+    public TransactionMetrics transactionMetrics(MeterRegistry meterRegistry) {
+        return new TransactionMetrics(meterRegistry);
+    }
+}
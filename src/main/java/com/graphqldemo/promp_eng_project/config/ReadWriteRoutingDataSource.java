@@ -0,0 +1,121 @@
+package com.graphqldemo.promp_eng_project.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * The routing key is read when a connection is obtained, so this must sit behind a
+ * {@code LazyConnectionDataSourceProxy}: the transaction's read-only flag is only published after the
+ * transaction manager has begun, and the proxy defers the real checkout to the first statement.
+ * <p>
+ * When the replica cannot hand out a connection, the read goes to the primary instead and the replica
+ * is skipped for {@code retryAfter}, so an outage costs one failed checkout per interval rather than one
+ * per request.
+ * <p>
+ * A replica may lag the primary. Reads that repopulate in-memory state after a write (cache reloads of the
+ * written keys, snapshot and aggregate rebuilds) run inside {@link #onPrimary}, so they cannot put the
+ * pre-write rows back in memory until the entries expire.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    enum Route { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryAfterNanos;
+    private volatile long replicaDownUntil;
+    private volatile boolean replicaDown;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration retryAfter) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryAfterNanos = retryAfter.toNanos();
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs {@code work} with every connection it obtains taken from the primary, read-only transaction or
+     * not. A connection already held when it is called is not switched.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (PRIMARY_ONLY.get() != null) return work.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    public static void onPrimary(Runnable work) {
+        onPrimary(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PRIMARY_ONLY.get() != null) return Route.PRIMARY;
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return Route.PRIMARY;
+        if (replicaDown && System.nanoTime() - replicaDownUntil < 0) return Route.PRIMARY;
+        return Route.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == Route.PRIMARY) return primary.getConnection();
+        try {
+            Connection connection = replica.getConnection();
+            if (replicaDown) {
+                replicaDown = false;
+                log.info("Read replica available again; routing read-only transactions to it");
+            }
+            return connection;
+        } catch (SQLException e) {
+            markReplicaDown(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (determineCurrentLookupKey() == Route.PRIMARY) return primary.getConnection(username, password);
+        try {
+            return replica.getConnection(username, password);
+        } catch (SQLException e) {
+            markReplicaDown(e);
+            return primary.getConnection(username, password);
+        }
+    }
+
+    private void markReplicaDown(SQLException e) {
+        replicaDownUntil = System.nanoTime() + retryAfterNanos;
+        if (!replicaDown) {
+            replicaDown = true;
+            log.warn("Read replica unavailable, routing reads to the primary for {} ms: {}",
+                    retryAfterNanos / 1_000_000, e.getMessage());
+        }
+    }
+
+    public boolean isReplicaAvailable() {
+        return !replicaDown;
+    }
+}
@@ -0,0 +1,89 @@
+package com.graphqldemo.promp_eng_project.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the SQL each request runs ({@code catalog.request.sql.statements} and {@code catalog.request.sql.time},
+ * tagged like {@code http.server.requests} with method and uri pattern) and logs requests slower than
+ * {@code catalog.metrics.slow-request-threshold} together with their SQL.
+ * <p>
+ * Streaming responses (SSE) outlive the handler thread and are left out.
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowRequestNanos;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry, Duration slowRequestThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestNanos = slowRequestThreshold.toNanos();
+    }
+
+    @Override
+    public int getOrder() {
+        // inside the server observation filter, so both time the same work
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        SqlRecorder recorder = SqlRecorder.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlRecorder.stop();
+            if (!request.isAsyncStarted()) {
+                record(request, response, recorder, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, SqlRecorder recorder, long elapsedNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("catalog.request.sql.statements")
+                .description("SQL statements executed per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(recorder.getStatements());
+        Timer.builder("catalog.request.sql.time")
+                .description("Time per request spent executing SQL")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(recorder.getExecuteNanos(), TimeUnit.NANOSECONDS);
+
+        if (elapsedNanos >= slowRequestNanos && log.isWarnEnabled()) {
+            StringBuilder sql = new StringBuilder();
+            recorder.getSql().forEach(statement -> sql.append("\n    ").append(statement));
+            if (recorder.getSqlOmitted() > 0) sql.append("\n    ... ").append(recorder.getSqlOmitted()).append(" more");
+            log.warn("Slow request {} {} -> {} in {} ms: {} SQL statements in {} ms, {} ms waiting for connections{}",
+                    request.getMethod(), request.getRequestURI(), response.getStatus(), millis(elapsedNanos),
+                    recorder.getStatements(), millis(recorder.getExecuteNanos()), millis(recorder.getConnectionWaitNanos()), sql);
+        }
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
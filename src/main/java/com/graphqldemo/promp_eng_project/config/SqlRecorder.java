@@ -0,0 +1,124 @@
+package com.graphqldemo.promp_eng_project.config;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What Hibernate sent to the database on the current thread while a recording is active: statement count,
+ * time spent executing them, time spent waiting for a pooled connection, and the first
+ * {@link #MAX_SQL_KEPT} SQL strings. {@link RequestMetricsFilter} records one per request.
+ * <p>
+ * The SQL comes from a {@link StatementInspector}, the timings from a session event listener, both
+ * registered by {@link MetricsConfig}; with no recording active they cost a thread-local lookup. Work
+ * handed to other threads (group commit, change feed) is not attributed to the request.
+ */
+public final class SqlRecorder {
+
+    static final int MAX_SQL_KEPT = 50;
+
+    private static final ThreadLocal<SqlRecorder> CURRENT = new ThreadLocal<>();
+
+    /** Sees every SQL string as Hibernate prepares it; returns it unchanged. */
+    static final StatementInspector INSPECTOR = sql -> {
+        SqlRecorder recorder = CURRENT.get();
+        if (recorder != null) recorder.prepared(sql);
+        return sql;
+    };
+
+    private int statements;
+    private long executeNanos;
+    private long connectionWaitNanos;
+    private final List<String> sql = new ArrayList<>();
+    private int sqlOmitted;
+
+    private SqlRecorder() {
+    }
+
+    public static SqlRecorder start() {
+        SqlRecorder recorder = new SqlRecorder();
+        CURRENT.set(recorder);
+        return recorder;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    private void prepared(String statement) {
+        if (sql.size() < MAX_SQL_KEPT) sql.add(statement); else sqlOmitted++;
+    }
+
+    /** Statements executed; a JDBC batch counts once, as it is one round trip. */
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getExecuteNanos() {
+        return executeNanos;
+    }
+
+    public long getConnectionWaitNanos() {
+        return connectionWaitNanos;
+    }
+
+    public List<String> getSql() {
+        return Collections.unmodifiableList(sql);
+    }
+
+    /** SQL strings prepared beyond {@link #MAX_SQL_KEPT}. */
+    public int getSqlOmitted() {
+        return sqlOmitted;
+    }
+
+    /**
+     * Registered through {@code hibernate.session.events.auto}, which creates one per session; a session is
+     * confined to one thread, so the start times need no synchronization.
+     */
+    public static class Listener implements SessionEventListener {
+
+        private long executeStart;
+        private long acquireStart;
+
+        @Override
+        public void jdbcConnectionAcquisitionStart() {
+            acquireStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcConnectionAcquisitionEnd() {
+            SqlRecorder recorder = CURRENT.get();
+            if (recorder != null) recorder.connectionWaitNanos += System.nanoTime() - acquireStart;
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            executeStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            executed();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            executeStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            executed();
+        }
+
+        private void executed() {
+            SqlRecorder recorder = CURRENT.get();
+            if (recorder == null) return;
+            recorder.statements++;
+            recorder.executeNanos += System.nanoTime() - executeStart;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.graphqldemo.promp_eng_project.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every transaction from begin to commit or rollback as {@code catalog.transactions}, tagged with the
+ * transactional method ({@code BookService.createBook}, or {@code programmatic} for a TransactionTemplate),
+ * the outcome and whether it was read-only. Only outermost (and REQUIRES_NEW) transactions are timed;
+ * joined ones are part of their caller's.
+ */
+public class TransactionMetrics implements TransactionExecutionListener {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TransactionExecution, Long> started = new ConcurrentHashMap<>();
+
+    public TransactionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure == null) started.put(transaction, System.nanoTime());
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        record(transaction, commitFailure == null ? "commit" : "commit-failed");
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        record(transaction, "rollback");
+    }
+
+    private void record(TransactionExecution transaction, String outcome) {
+        Long start = started.remove(transaction);
+        if (start == null) return;
+        Timer.builder("catalog.transactions")
+                .description("Transaction duration from begin to completion")
+                .tag("name", shortName(transaction.getTransactionName()))
+                .tag("outcome", outcome)
+                .tag("read-only", Boolean.toString(transaction.isReadOnly()))
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /** {@code com.example.BookService.createBook} becomes {@code BookService.createBook}. */
+    private static String shortName(String name) {
+        if (name == null || name.isEmpty()) return "programmatic";
+        int method = name.lastIndexOf('.');
+        int type = method > 0 ? name.lastIndexOf('.', method - 1) : -1;
+        return name.substring(type + 1);
+    }
+}
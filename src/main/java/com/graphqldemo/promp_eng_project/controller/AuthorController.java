@@ -0,0 +1,36 @@
+package com.graphqldemo.promp_eng_project.controller;
+
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.service.AuthorService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/authors")
+@RequiredArgsConstructor
+public class AuthorController {
+    
+    private final AuthorService authorService;
+    
+    @GetMapping
+    public ResponseEntity<Object> getAuthors(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeBooks) {
+        try {
+            return ResponseEntity.ok(authorService.getAuthorsPage(after, limit, includeBooks));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<AuthorDTO> getAuthorById(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean includeBooks) {
+        return authorService.getAuthorById(id, includeBooks)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,80 @@
+package com.graphqldemo.promp_eng_project.controller;
+
+import com.graphqldemo.promp_eng_project.dto.BookChangeDTO;
+import com.graphqldemo.promp_eng_project.service.BookChangeFeed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/books")
+public class BookChangesController {
+
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final BookChangeFeed bookChangeFeed;
+    private final Duration heartbeat;
+    private final Duration timeout;
+
+    public BookChangesController(BookChangeFeed bookChangeFeed,
+                                 @Value("${catalog.changes.heartbeat:PT15S}") Duration heartbeat,
+                                 @Value("${catalog.changes.timeout:PT30M}") Duration timeout) {
+        this.bookChangeFeed = bookChangeFeed;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Committed creates and price changes as Server-Sent Events, named by change type, with the change's
+     * {@code epoch:sequence} as event id. Browsers and most SSE clients send the last id back as
+     * {@code Last-Event-ID} when they reconnect and resume where they left off; a RESET event means the gap
+     * could not be replayed (or the server restarted) and the catalog should be refetched.
+     * <p>
+     * Events are written from a virtual thread per subscriber, so a slow connection only ever delays its
+     * own stream; one that falls too far behind is closed and resumes on reconnect.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        String resumeFrom = lastEventId == null || lastEventId.isBlank() ? null : lastEventId.trim();
+        BookChangeFeed.Subscription subscription = bookChangeFeed.subscribe(resumeFrom);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        Thread.ofVirtual().name("book-changes").start(() -> send(emitter, subscription));
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, BookChangeFeed.Subscription subscription) {
+        try {
+            while (!subscription.isClosed()) {
+                BookChangeDTO change = subscription.poll(heartbeat);
+                if (change != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(BookChangeFeed.eventId(change))
+                            .name(change.getType())
+                            .data(change, MediaType.APPLICATION_JSON));
+                } else if (!subscription.isClosed()) {
+                    // keeps proxies from timing the connection out between changes
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+            }
+            // fell behind (or timed out): end the stream so the client reconnects from its last event id
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // client went away or the emitter already completed
+            subscription.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            subscription.close();
+            emitter.complete();
+        }
+    }
+}
@@ -1,15 +1,31 @@
 package com.graphqldemo.promp_eng_project.controller;
 
 import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.BookPageDTO;
+import com.graphqldemo.promp_eng_project.dto.BookSuggestionDTO;
+import com.graphqldemo.promp_eng_project.dto.BulkDiscountRequestDTO;
+import com.graphqldemo.promp_eng_project.dto.BulkDiscountResultDTO;
+import com.graphqldemo.promp_eng_project.dto.CacheStatsDTO;
+import com.graphqldemo.promp_eng_project.dto.CatalogStatsDTO;
+import com.graphqldemo.promp_eng_project.dto.ConflictStatsDTO;
+import com.graphqldemo.promp_eng_project.dto.GroupCommitStatsDTO;
+import com.graphqldemo.promp_eng_project.service.BookJsonCache;
 import com.graphqldemo.promp_eng_project.service.BookService;
+import com.graphqldemo.promp_eng_project.service.BookWriteBatcher;
+import com.graphqldemo.promp_eng_project.service.CatalogVersion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/books")
@@ -17,23 +33,122 @@ import java.util.Map;
 public class BookController {
     
     private final BookService bookService;
+    private final BookJsonCache bookJsonCache;
+    private final BookWriteBatcher bookWriteBatcher;
     
     @GetMapping
-    public ResponseEntity<List<BookDTO>> getAllBooks() {
-        return ResponseEntity.ok(bookService.getAllBooks());
+    public ResponseEntity<Object> getAllBooks(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            WebRequest webRequest) {
+        CatalogVersion.Stamp stamp = bookService.getCatalogStamp();
+        try {
+            // bad parameters are a 400 whatever tag the client holds
+            bookService.validatePageRequest(after, limit, sort);
+            if (webRequest.checkNotModified(stamp.etag(), stamp.lastModified())) {
+                return notModified(stamp, stamp.etag());
+            }
+            BookPageDTO page = bookService.getBooksPage(after, limit, sort);
+            return ResponseEntity.ok()
+                    .eTag(stamp.etag())
+                    .lastModified(stamp.lastModified())
+                    .body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        }
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<BookDTO> getBookById(@PathVariable Long id) {
-        return bookService.getBookById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> getBookById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        // validated against the catalog stamp rather than the row version, read before the book so the tag is
+        // never newer than the data; the lookup comes first so a missing book is a 404 whatever tag is sent,
+        // and is usually answered from memory by the caches or the snapshot
+        CatalogVersion.Stamp stamp = bookService.getCatalogStamp();
+        boolean gzip = bookJsonCache.servesGzip(acceptEncoding);
+        String etag = gzip ? stamp.etag("gzip") : stamp.etag();
+        if (bookJsonCache.isEnabled()) {
+            Optional<BookJsonCache.Encoded> encoded = bookJsonCache.getById(id, bookService::getBookById);
+            if (encoded.isEmpty()) return ResponseEntity.notFound().build();
+            if (webRequest.checkNotModified(etag, stamp.lastModified())) return notModified(stamp, etag);
+            return encodedResponse(encoded.get(), gzip, etag, stamp);
+        }
+        Optional<BookDTO> book = bookService.getBookById(id);
+        if (book.isEmpty()) return ResponseEntity.notFound().build();
+        if (webRequest.checkNotModified(etag, stamp.lastModified())) return notModified(stamp, etag);
+        return ResponseEntity.ok()
+                .eTag(stamp.etag())
+                .lastModified(stamp.lastModified())
+                .body(book.get());
+    }
+    
+    private static ResponseEntity<Object> notModified(CatalogVersion.Stamp stamp, String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .lastModified(stamp.lastModified())
+                .build();
+    }
+    
+    private static ResponseEntity<byte[]> encodedResponse(BookJsonCache.Encoded encoded, boolean gzip, String etag,
+                                                          CatalogVersion.Stamp stamp) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .lastModified(stamp.lastModified())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip && encoded.gzip() != null) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(encoded.gzip());
+        }
+        return response.body(encoded.json());
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<BookDTO>> searchBooksByTitle(@RequestParam String title) {
-        List<BookDTO> books = bookService.findBooksByTitleContaining(title);
-        return ResponseEntity.ok(books);
+    public ResponseEntity<Object> searchBooksByTitle(
+            @RequestParam String title,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<BookDTO> books = bookService.findBooksByTitleContaining(title, limit);
+            return ResponseEntity.ok(books);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestTitles(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<BookSuggestionDTO> suggestions = bookService.suggestTitles(prefix, limit);
+            return ResponseEntity.ok(suggestions);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>(bookService.getCacheStats());
+        stats.add(bookJsonCache.stats());
+        return ResponseEntity.ok(stats);
+    }
+    
+    @GetMapping("/stats")
+    public ResponseEntity<CatalogStatsDTO> getCatalogStats() {
+        return ResponseEntity.ok(bookService.getCatalogStats());
+    }
+    
+    @GetMapping("/conflicts/stats")
+    public ResponseEntity<ConflictStatsDTO> getConflictStats() {
+        return ResponseEntity.ok(bookService.getConflictStats());
+    }
+    
+    @GetMapping("/group-commit/stats")
+    public ResponseEntity<GroupCommitStatsDTO> getGroupCommitStats() {
+        return ResponseEntity.ok(bookWriteBatcher.stats());
     }
     
     @GetMapping("/title/{title}")
@@ -46,11 +161,15 @@ public class BookController {
     @PostMapping
     public ResponseEntity<Object> addBook(@RequestBody com.graphqldemo.promp_eng_project.dto.BookDTO requestDto) {
         try {
-            BookDTO savedBook = bookService.createBook(requestDto);
+            // committed together with concurrent creates when catalog.group-commit.enabled, else on its own
+            BookDTO savedBook = bookWriteBatcher.createBook(requestDto);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedBook);
         } catch (IllegalArgumentException e) {
             // return a small error body identifying the offending field when possible
             return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        } catch (BookWriteBatcher.QueueTimeoutException e) {
+            // not written; safe to retry
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(java.util.Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(java.util.Map.of("error", "internal"));
         }
@@ -70,4 +189,16 @@ public class BookController {
             return ResponseEntity.internalServerError().build();
         }
     }
+    
+    @PutMapping("/discount")
+    public ResponseEntity<Object> applyBulkDiscount(@RequestBody BulkDiscountRequestDTO request) {
+        try {
+            BulkDiscountResultDTO result = bookService.applyBulkDiscount(request);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(java.util.Map.of("error", "internal"));
+        }
+    }
 }
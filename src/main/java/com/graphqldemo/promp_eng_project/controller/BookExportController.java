@@ -0,0 +1,48 @@
+package com.graphqldemo.promp_eng_project.controller;
+
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@RestController
+@RequestMapping("/api/books")
+@RequiredArgsConstructor
+public class BookExportController {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Full catalog as newline-delimited JSON, one {@link BookDTO} per line, written while rows are still
+     * being read so neither the server nor the client has to hold the whole catalog.
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        ObjectWriter writer = objectMapper.writerFor(BookDTO.class);
+        StreamingResponseBody body = out -> bookService.exportBooks(book -> {
+            try {
+                out.write(writer.writeValueAsBytes(book));
+                out.write('\n');
+            } catch (IOException e) {
+                // client went away; abort the cursor rather than reading the rest of the table
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+}
@@ -0,0 +1,58 @@
+package com.graphqldemo.promp_eng_project.controller;
+
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.BookImportSummaryDTO;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/books")
+@RequiredArgsConstructor
+public class BookImportController {
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> importBooks(@RequestBody List<BookDTO> books) {
+        return doImport(books);
+    }
+
+    /**
+     * Same as the JSON-array variant but reads one {@link BookDTO} per line, so producers can
+     * stream an export straight back in.
+     */
+    @PostMapping(value = "/batch", consumes = BookExportController.NDJSON)
+    public ResponseEntity<Object> importBooksNdjson(InputStream body) {
+        List<BookDTO> books;
+        try (MappingIterator<BookDTO> it = objectMapper.readerFor(BookDTO.class).readValues(body)) {
+            books = it.readAll();
+        } catch (JacksonException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", "malformed NDJSON: " + e.getOriginalMessage()));
+        }
+        return doImport(books);
+    }
+
+    private ResponseEntity<Object> doImport(List<BookDTO> books) {
+        try {
+            BookImportSummaryDTO summary = bookService.importBooks(books);
+            return ResponseEntity.ok(summary);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(java.util.Map.of("error", "internal"));
+        }
+    }
+}
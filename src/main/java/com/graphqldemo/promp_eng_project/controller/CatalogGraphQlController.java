@@ -0,0 +1,76 @@
+package com.graphqldemo.promp_eng_project.controller;
+
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.service.AuthorService;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GraphQL API over the same services as the REST endpoints (schema in {@code graphql/schema.graphqls}).
+ * <p>
+ * Books are always loaded together with their author, so {@code Book.author} is a plain property.
+ * {@code Author.books} is a batch mapping: the books of every author in a response are loaded with one
+ * query, however many authors the response contains.
+ */
+@Controller
+@RequiredArgsConstructor
+public class CatalogGraphQlController {
+    
+    private final BookService bookService;
+    private final AuthorService authorService;
+    
+    @QueryMapping
+    public BookDTO book(@Argument Long id) {
+        return bookService.getBookById(id).orElse(null);
+    }
+    
+    @QueryMapping
+    public List<BookDTO> searchBooks(@Argument String title, @Argument Integer limit) {
+        if (limit != null && limit > BookService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must not exceed " + BookService.MAX_PAGE_SIZE);
+        }
+        return bookService.findBooksByTitleContaining(title, limit);
+    }
+    
+    @QueryMapping
+    public AuthorDTO author(@Argument Long id) {
+        return authorService.getAuthorById(id).orElse(null);
+    }
+    
+    @QueryMapping
+    public List<AuthorDTO> authors(@Argument Integer limit) {
+        return authorService.getAuthors(limit);
+    }
+    
+    @MutationMapping
+    public BookDTO createBook(@Argument BookDTO input) {
+        return bookService.createBook(input);
+    }
+    
+    @MutationMapping
+    public BookDTO applyDiscount(@Argument Long bookId, @Argument BigDecimal percentage) {
+        return bookService.applyDiscount(bookId, percentage);
+    }
+    
+    @BatchMapping(typeName = "Author", field = "books")
+    public Map<AuthorDTO, List<BookDTO>> books(List<AuthorDTO> authors) {
+        Map<Long, List<BookDTO>> byAuthorId = bookService.getBooksByAuthorIds(
+                authors.stream().map(AuthorDTO::getId).toList());
+        Map<AuthorDTO, List<BookDTO>> result = new LinkedHashMap<>();
+        for (AuthorDTO author : authors) {
+            result.put(author, byAuthorId.getOrDefault(author.getId(), List.of()));
+        }
+        return result;
+    }
+}
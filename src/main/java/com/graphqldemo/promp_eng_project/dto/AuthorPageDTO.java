@@ -0,0 +1,21 @@
+package com.graphqldemo.promp_eng_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of authors in id order. {@code nextCursor} is an opaque token to pass back as {@code after};
+ * it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorPageDTO {
+
+    private List<AuthorDTO> items;
+    private String nextCursor;
+    private int limit;
+}
@@ -0,0 +1,23 @@
+package com.graphqldemo.promp_eng_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorStatsDTO {
+
+    private Long authorId;
+    private String authorName;
+    private long books;
+    private BigDecimal minPrice;
+    /** rounded half-up to cents */
+    private BigDecimal avgPrice;
+    private BigDecimal maxPrice;
+    /** exact sum of prices */
+    private BigDecimal totalPrice;
+}
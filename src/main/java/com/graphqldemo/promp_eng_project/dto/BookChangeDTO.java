@@ -0,0 +1,33 @@
+package com.graphqldemo.promp_eng_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One committed change on the {@code /api/books/changes} feed. {@code epoch:sequence} is the SSE event id
+ * to resume from; the epoch changes on every server start. {@code book} is null for BULK_UPDATED, which
+ * lists the changed books in {@code bookIds} instead (refetch those), and for RESET (the resume point is no
+ * longer buffered; refetch the catalog).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookChangeDTO {
+
+    public static final String RESET = "RESET";
+
+    private String epoch;
+    private long sequence;
+    private String type;
+    private BookDTO book;
+    /** price before an UPDATED change, when known */
+    private BigDecimal previousPrice;
+    /** commit time, epoch millis */
+    private long timestamp;
+    /** books changed by a BULK_UPDATED change */
+    private List<Long> bookIds;
+}
@@ -0,0 +1,31 @@
+package com.graphqldemo.promp_eng_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one entry of a bulk import. {@code index} is the entry's position in the request;
+ * {@code id} is set when it was created, {@code error} when it was rejected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String status;
+    private Long id;
+    private String error;
+
+    public static BookImportResultDTO created(int index, Long id) {
+        return new BookImportResultDTO(index, CREATED, id, null);
+    }
+
+    public static BookImportResultDTO rejected(int index, String error) {
+        return new BookImportResultDTO(index, REJECTED, null, error);
+    }
+}
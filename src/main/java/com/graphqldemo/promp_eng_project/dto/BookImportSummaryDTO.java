@@ -0,0 +1,17 @@
+package com.graphqldemo.promp_eng_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportSummaryDTO {
+
+    private int created;
+    private int rejected;
+    private List<BookImportResultDTO> results;
+}
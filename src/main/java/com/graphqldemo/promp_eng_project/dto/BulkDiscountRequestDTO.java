@@ -0,0 +1,25 @@
+package com.graphqldemo.promp_eng_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Discount applied to a set of books. Exactly one selector must be given: {@code authorId},
+ * a price band ({@code minPrice} and/or {@code maxPrice}, inclusive) or {@code bookIds}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDiscountRequestDTO {
+
+    private BigDecimal discountPercentage;
+    private Long authorId;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private List<Long> bookIds;
+    private boolean returnBooks;
+}
@@ -0,0 +1,19 @@
+package com.graphqldemo.promp_eng_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * {@code books} holds the updated rows only when the request asked for them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDiscountResultDTO {
+
+    private int updated;
+    private List<BookDTO> books;
+}
@@ -0,0 +1,18 @@
+package com.graphqldemo.promp_eng_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogStatsDTO {
+
+    private long books;
+    private List<AuthorStatsDTO> authors;
+    /** reconciliations that found the in-memory aggregates out of step with the database */
+    private long driftsDetected;
+}
@@ -0,0 +1,18 @@
+package com.graphqldemo.promp_eng_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConflictStatsDTO {
+
+    private long operations;
+    private long attempts;
+    private long conflicts;
+    private long exhausted;
+    /** conflicts per attempt */
+    private double conflictRate;
+}
@@ -0,0 +1,21 @@
+package com.graphqldemo.promp_eng_project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupCommitStatsDTO {
+
+    private boolean enabled;
+    /** create requests answered through the pipeline */
+    private long requests;
+    /** transactions committed for them */
+    private long batches;
+    /** batches that failed as a whole and were redone one request per transaction */
+    private long fallbacks;
+    /** requests per batch */
+    private double averageBatchSize;
+}
@@ -4,18 +4,21 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.List;
 
 @Entity
-@Table(name = "authors")
+@Table(name = "authors", indexes = @Index(name = "idx_authors_name", columnList = "name"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Author {
     
+    // pooled sequence, as for Book.id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_seq")
+    @SequenceGenerator(name = "authors_seq", sequenceName = "authors_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -23,6 +26,10 @@ public class Author {
     
     private String bio;
     
+    // initialising one author's books loads those of up to 100 authors in the persistence context
+    // with a single IN query, so walking a page of authors is not one query per author
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @OrderBy("id")
     private List<Book> books;
 }
@@ -8,14 +8,30 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books",
+        uniqueConstraints = @UniqueConstraint(name = Book.UNIQUE_TITLE, columnNames = "title"),
+        indexes = {
+                @Index(name = "idx_books_price_id", columnList = "price, id"),
+                @Index(name = "idx_books_title_id", columnList = "title, id"),
+                @Index(name = "idx_books_author_id", columnList = "author_id, id")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Book {
     
+    /**
+     * Titles are unique; BookService reports a violation of this constraint as a duplicate title. Like the
+     * indexes, it is created on existing databases by db/constraints.sql.
+     */
+    public static final String UNIQUE_TITLE = "uk_books_title";
+    
+    // pooled sequence ids let Hibernate assign ids without a round trip per row, which IDENTITY
+    // cannot do, so inserts can be sent as JDBC batches; Author uses the same scheme. Databases created
+    // with IDENTITY ids are moved over by db/sequences.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -27,4 +43,10 @@ public class Book {
     
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
+    
+    // incremented by Hibernate on every entity update; set-based updates in BookRepository bump it explicitly.
+    // Databases created before this column are migrated by db/book-version.sql
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,17 @@
+package com.graphqldemo.promp_eng_project.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of books an author has at one price; see {@link BookRepository#countByAuthorAndPrice()}.
+ */
+public interface AuthorPriceCountView {
+
+    Long getAuthorId();
+
+    String getAuthorName();
+
+    BigDecimal getPrice();
+
+    Long getBooks();
+}
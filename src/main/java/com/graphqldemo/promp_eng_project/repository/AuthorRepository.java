@@ -1,9 +1,12 @@
 package com.graphqldemo.promp_eng_project.repository;
 
 import com.graphqldemo.promp_eng_project.entity.Author;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +15,10 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
     Optional<Author> findByName(String name);
     
     boolean existsByName(String name);
+    
+    List<Author> findByNameIn(Collection<String> names);
+    
+    List<Author> findAllByOrderByIdAsc(Limit limit);
+    
+    List<Author> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
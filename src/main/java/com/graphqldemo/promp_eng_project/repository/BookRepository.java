@@ -1,23 +1,117 @@
 package com.graphqldemo.promp_eng_project.repository;
 
 import com.graphqldemo.promp_eng_project.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
     
+    // Read paths fetch the author in the same statement; BookService always maps it into the DTO,
+    // and leaving it lazy costs one extra SELECT per book.
+    
+    @EntityGraph(attributePaths = "author")
     Optional<Book> findByTitle(String title);
     
+    @EntityGraph(attributePaths = "author")
     List<Book> findByTitleContainingIgnoreCase(String title);
     
-    @Query("SELECT b FROM Book b WHERE b.author.id = :authorId")
+    @EntityGraph(attributePaths = "author")
+    List<Book> findByTitleContainingIgnoreCase(String title, Limit limit);
+    
+    @EntityGraph(attributePaths = "author")
+    Optional<Book> findWithAuthorById(Long id);
+    
+    @Query("SELECT b FROM Book b JOIN FETCH b.author")
+    List<Book> findAllWithAuthor();
+    
+    @Query("SELECT b FROM Book b JOIN FETCH b.author WHERE b.author.id = :authorId")
     List<Book> findByAuthorId(@Param("authorId") Long authorId);
     
+    // one row per (author, distinct price): enough to rebuild exact per-author counts, sums and min/max
+    @Query("SELECT a.id AS authorId, a.name AS authorName, b.price AS price, COUNT(b) AS books " +
+           "FROM Book b JOIN b.author a GROUP BY a.id, a.name, b.price")
+    List<AuthorPriceCountView> countByAuthorAndPrice();
+    
+    @Query("SELECT b.id AS id, b.version AS version FROM Book b WHERE b.id IN :ids")
+    List<BookVersionView> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT b FROM Book b JOIN FETCH b.author WHERE b.author.id IN :authorIds ORDER BY b.id")
+    List<Book> findAllWithAuthorByAuthorIdIn(@Param("authorIds") Collection<Long> authorIds);
+    
+    List<BookTitleView> findByTitleStartingWithIgnoreCaseOrderByTitleAscIdAsc(String prefix, Limit limit);
+    
+    @Query("SELECT b FROM Book b JOIN FETCH b.author WHERE b.id IN :ids ORDER BY b.id")
+    List<Book> findAllWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+    
     boolean existsByTitle(String title);
+    
+    @Query("SELECT b.title FROM Book b WHERE b.title IN :titles")
+    List<String> findExistingTitles(@Param("titles") Collection<String> titles);
+    
+    // Set-based discount: one UPDATE statement for a list of ids. The persistence context is flushed before
+    // and cleared after so no managed Book keeps a stale price, and the row version is bumped as an entity
+    // update would.
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.price = ROUND(b.price * :factor, 2), b.version = b.version + 1 WHERE b.id IN :ids")
+    int applyDiscountByIds(@Param("ids") Collection<Long> ids, @Param("factor") BigDecimal factor);
+    
+    @Query("SELECT b.id FROM Book b WHERE b.author.id = :authorId")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId);
+    
+    @Query("SELECT b.id FROM Book b WHERE b.price BETWEEN :minPrice AND :maxPrice")
+    List<Long> findIdsByPriceBetween(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice);
+    
+    // Keyset pagination: each ordering is (key, id) and the next page starts strictly after the last row seen,
+    // so the database seeks on the index instead of skipping OFFSET rows.
+    
+    @Query("SELECT b FROM Book b JOIN FETCH b.author ORDER BY b.id")
+    List<Book> findFirstPageById(Limit limit);
+    
+    @Query("SELECT b FROM Book b JOIN FETCH b.author WHERE b.id > :afterId ORDER BY b.id")
+    List<Book> findPageAfterId(@Param("afterId") Long afterId, Limit limit);
+    
+    @Query("SELECT b FROM Book b JOIN FETCH b.author ORDER BY b.price, b.id")
+    List<Book> findFirstPageByPrice(Limit limit);
+    
+    @Query("SELECT b FROM Book b JOIN FETCH b.author WHERE (b.price, b.id) > (:price, :afterId) ORDER BY b.price, b.id")
+    List<Book> findPageAfterPrice(@Param("price") BigDecimal price, @Param("afterId") Long afterId, Limit limit);
+    
+    @Query("SELECT b FROM Book b JOIN FETCH b.author ORDER BY b.title, b.id")
+    List<Book> findFirstPageByTitle(Limit limit);
+    
+    @Query("SELECT b FROM Book b JOIN FETCH b.author WHERE (b.title, b.id) > (:title, :afterId) ORDER BY b.title, b.id")
+    List<Book> findPageAfterTitle(@Param("title") String title, @Param("afterId") Long afterId, Limit limit);
+    
+    /**
+     * Whole catalog as a forward-only cursor for exports. The fetch size makes the driver pull rows in batches
+     * (PostgreSQL only honours it inside a transaction), and read-only entities skip dirty-checking snapshots.
+     * Callers must close the stream.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b JOIN FETCH b.author ORDER BY b.id")
+    Stream<Book> streamAllWithAuthor();
+    
+    /** Ids and titles only, for building in-memory title indexes. Callers must close the stream. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.id AS id, b.title AS title FROM Book b ORDER BY b.id")
+    Stream<BookTitleView> streamAllTitles();
 }
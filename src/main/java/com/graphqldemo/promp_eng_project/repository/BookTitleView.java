@@ -0,0 +1,11 @@
+package com.graphqldemo.promp_eng_project.repository;
+
+/**
+ * Id/title projection used to build in-memory title structures without hydrating entities.
+ */
+public interface BookTitleView {
+
+    Long getId();
+
+    String getTitle();
+}
@@ -0,0 +1,11 @@
+package com.graphqldemo.promp_eng_project.repository;
+
+/**
+ * A book's current row version; see {@link BookRepository#findVersionsByIdIn}.
+ */
+public interface BookVersionView {
+
+    Long getId();
+
+    Long getVersion();
+}
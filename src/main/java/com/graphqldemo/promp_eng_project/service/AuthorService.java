@@ -0,0 +1,84 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.AuthorPageDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AuthorService {
+    
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    private final AuthorRepository authorRepository;
+    
+    public Optional<AuthorDTO> getAuthorById(Long id) {
+        return getAuthorById(id, false);
+    }
+    
+    public Optional<AuthorDTO> getAuthorById(Long id, boolean includeBooks) {
+        return authorRepository.findById(id).map(author -> convertToDTO(author, includeBooks));
+    }
+    
+    /**
+     * The first {@code limit} authors in id order, without their books.
+     */
+    public List<AuthorDTO> getAuthors(Integer limit) {
+        return authorRepository.findAllByOrderByIdAsc(Limit.of(pageSize(limit))).stream()
+                .map(author -> convertToDTO(author, false))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * One keyset page of authors in id order. With {@code includeBooks}, the books of the whole page are
+     * loaded by Hibernate batch fetching ({@code @BatchSize} on {@link Author#getBooks()}), one query per
+     * 100 authors rather than one per author.
+     */
+    public AuthorPageDTO getAuthorsPage(String after, Integer limit, boolean includeBooks) {
+        int pageSize = pageSize(limit);
+        // read one extra row to learn whether another page exists without a count query
+        Limit fetch = Limit.of(pageSize + 1);
+        List<Author> rows = (after == null || after.isBlank())
+                ? authorRepository.findAllByOrderByIdAsc(fetch)
+                : authorRepository.findByIdGreaterThanOrderByIdAsc(BookCursor.decode(after, BookSort.ID).getId(), fetch);
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<Author> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? new BookCursor(BookSort.ID, page.get(page.size() - 1).getId(), null).encode() : null;
+        
+        List<AuthorDTO> items = page.stream()
+                .map(author -> convertToDTO(author, includeBooks))
+                .collect(Collectors.toList());
+        return new AuthorPageDTO(items, nextCursor, pageSize);
+    }
+    
+    private static int pageSize(Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+    
+    private AuthorDTO convertToDTO(Author author, boolean includeBooks) {
+        AuthorDTO authorDTO = BookService.convertAuthorToDTO(author);
+        if (includeBooks) {
+            // nested under their author, so the author is not repeated in every book
+            authorDTO.setBooks(author.getBooks().stream()
+                    .map(book -> BookService.convertToDTO(book, false))
+                    .collect(Collectors.toList()));
+        }
+        return authorDTO;
+    }
+}
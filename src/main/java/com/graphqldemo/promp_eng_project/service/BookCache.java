@@ -0,0 +1,121 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.graphqldemo.promp_eng_project.config.ReadWriteRoutingDataSource;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.CacheStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of {@link BookDTO}s by id and by exact title, evicting by size (W-TinyLFU)
+ * and by age. Entries are evicted after a write commits; a load racing with that eviction cannot leave a
+ * stale entry behind because the eviction waits for the in-flight load of the same key.
+ * <p>
+ * Cached DTOs are shared between callers and must be treated as read-only.
+ * <p>
+ * For {@code catalog.datasource.replica.max-lag} after a write, loads of the keys it touched (of every key,
+ * after a set-based update) read the primary: read from a replica that has not caught up, they would cache
+ * the pre-write row again. Tracked whether or not caching is enabled, since the encoded-response cache
+ * loads through here as well.
+ */
+@Component
+public class BookCache {
+
+    /** Caches derived from this one (encoded responses) evict after it. */
+    public static final int LISTENER_ORDER = 0;
+
+    private final boolean enabled;
+    private final Cache<Long, BookDTO> byId;
+    private final Cache<String, BookDTO> byTitle;
+
+    /** Keys written within the replica lag; their loads go to the primary. */
+    private final Cache<Object, Boolean> recentlyWritten;
+    private final long replicaLagNanos;
+    private volatile long bulkWrittenAt;
+    private volatile boolean bulkWritten;
+
+    public BookCache(@Value("${catalog.cache.enabled:true}") boolean enabled,
+                     @Value("${catalog.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${catalog.cache.expire-after-write:PT10M}") Duration expireAfterWrite,
+                     @Value("${catalog.datasource.replica.max-lag:PT5S}") Duration replicaLag) {
+        this.enabled = enabled;
+        this.replicaLagNanos = replicaLag.toNanos();
+        this.recentlyWritten = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(replicaLag)
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.byTitle = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<BookDTO> getById(Long id, Function<Long, Optional<BookDTO>> loader) {
+        if (!enabled || id == null) return load(id, loader);
+        // absent books are not cached, so a later insert is visible straight away
+        return Optional.ofNullable(byId.get(id, key -> load(key, loader).orElse(null)));
+    }
+
+    public Optional<BookDTO> getByTitle(String title, Function<String, Optional<BookDTO>> loader) {
+        if (!enabled || title == null) return load(title, loader);
+        return Optional.ofNullable(byTitle.get(title, key -> load(key, loader).orElse(null)));
+    }
+
+    private <K> Optional<BookDTO> load(K key, Function<K, Optional<BookDTO>> loader) {
+        boolean recent = (bulkWritten && System.nanoTime() - bulkWrittenAt < replicaLagNanos)
+                || (key != null && recentlyWritten.getIfPresent(key) != null);
+        return recent ? ReadWriteRoutingDataSource.onPrimary(() -> loader.apply(key)) : loader.apply(key);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(LISTENER_ORDER)
+    public void onBookChanged(BookChangedEvent event) {
+        // marked before evicting, so no load after the eviction can miss the mark
+        if (event.getType() == BookChangedEvent.Type.BULK_UPDATED) {
+            bulkWrittenAt = System.nanoTime();
+            bulkWritten = true;
+            invalidateAll();
+            return;
+        }
+        BookDTO book = event.getBook();
+        if (book == null) return;
+        if (book.getId() != null) {
+            recentlyWritten.put(book.getId(), Boolean.TRUE);
+            byId.invalidate(book.getId());
+        }
+        if (book.getTitle() != null) {
+            recentlyWritten.put(book.getTitle(), Boolean.TRUE);
+            byTitle.invalidate(book.getTitle());
+        }
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byTitle.invalidateAll();
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return List.of(toDTO("books.byId", byId), toDTO("books.byTitle", byTitle));
+    }
+
+    private static CacheStatsDTO toDTO(String name, Cache<?, ?> cache) {
+        CacheStats s = cache.stats();
+        return new CacheStatsDTO(name, cache.estimatedSize(), s.hitCount(), s.missCount(), s.hitRate(), s.evictionCount());
+    }
+}
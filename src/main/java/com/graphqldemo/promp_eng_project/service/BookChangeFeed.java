@@ -0,0 +1,177 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.graphqldemo.promp_eng_project.dto.BookChangeDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Committed book changes, numbered and kept in a bounded ring buffer so a subscriber that reconnects with
+ * the last sequence it saw gets exactly what it missed. A subscriber whose resume point has already been
+ * overwritten (or predates a restart) gets one RESET change instead and should refetch the catalog.
+ * <p>
+ * Each subscriber has its own bounded queue, filled without blocking. A subscriber that falls
+ * {@code subscriber-buffer} changes behind is closed rather than allowed to hold up the writers or the
+ * other subscribers; it reconnects and resumes from the ring buffer. The changes replayed on resuming do
+ * not count against that: they are added to the queue's allowance, which can be up to {@code buffer-size}.
+ * <p>
+ * Event ids are {@code epoch:sequence}, where the epoch is drawn at random on every start. Sequences alone
+ * restart, so an id handed out before a restart could name a different change afterwards; with the epoch
+ * it no longer matches and resolves to a RESET.
+ */
+@Component
+public class BookChangeFeed {
+
+    /** Wakes a closed subscription's reader; never delivered. */
+    private static final BookChangeDTO CLOSED = new BookChangeDTO();
+
+    private final BookChangeDTO[] ring;
+    private final int subscriberBuffer;
+    private final String epoch = Long.toUnsignedString(new SecureRandom().nextLong(), 36);
+    private final long firstSequence = 1;
+    private long nextSequence = firstSequence;
+    private final Set<Subscription> subscribers = new LinkedHashSet<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder lagging = new LongAdder();
+
+    public BookChangeFeed(@Value("${catalog.changes.buffer-size:1024}") int bufferSize,
+                          @Value("${catalog.changes.subscriber-buffer:256}") int subscriberBuffer) {
+        if (bufferSize < 1) throw new IllegalArgumentException("catalog.changes.buffer-size must be at least 1");
+        if (subscriberBuffer < 1) throw new IllegalArgumentException("catalog.changes.subscriber-buffer must be at least 1");
+        this.ring = new BookChangeDTO[bufferSize];
+        this.subscriberBuffer = subscriberBuffer;
+    }
+
+    /** The SSE event id of {@code change}, which {@link #subscribe} accepts to resume after it. */
+    public static String eventId(BookChangeDTO change) {
+        return change.getEpoch() + ":" + change.getSequence();
+    }
+
+    // after the caches have evicted and the catalog version moved, so a subscriber that refetches on an
+    // event reads the new data under a new ETag
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(BookCache.LISTENER_ORDER + 20)
+    public void onBookChanged(BookChangedEvent event) {
+        publish(event);
+    }
+
+    private synchronized void publish(BookChangedEvent event) {
+        BookChangeDTO change = new BookChangeDTO(epoch, nextSequence, event.getType().name(), event.getBook(),
+                event.getPreviousPrice(), System.currentTimeMillis(), event.getBookIds());
+        ring[(int) (nextSequence % ring.length)] = change;
+        nextSequence++;
+        published.increment();
+        subscribers.removeIf(subscription -> !subscription.offer(change));
+    }
+
+    /**
+     * Start receiving changes committed from now on, preceded by those after {@code lastEventId} when it
+     * is given and still buffered, or by a RESET when it is not (including ids from an earlier start, and
+     * ones this feed never issued).
+     */
+    public synchronized Subscription subscribe(String lastEventId) {
+        Subscription subscription = new Subscription();
+        // the replay is queued in full and counted on top of the allowance for new changes
+        if (lastEventId != null) {
+            long lastSequence = sequenceOf(lastEventId);
+            long oldest = Math.max(firstSequence, nextSequence - ring.length);
+            if (lastSequence < oldest - 1 || lastSequence >= nextSequence) {
+                subscription.queue.add(new BookChangeDTO(epoch, nextSequence - 1, BookChangeDTO.RESET, null, null,
+                        System.currentTimeMillis(), null));
+            } else {
+                for (long sequence = lastSequence + 1; sequence < nextSequence; sequence++) {
+                    subscription.queue.add(ring[(int) (sequence % ring.length)]);
+                }
+            }
+        }
+        subscription.capacity += subscription.queue.size();
+        subscribers.add(subscription);
+        return subscription;
+    }
+
+    /** The sequence of an id issued since this start, or -1 for anything else. */
+    private long sequenceOf(String eventId) {
+        int colon = eventId.indexOf(':');
+        if (colon < 0 || !eventId.substring(0, colon).equals(epoch)) return -1;
+        try {
+            return Long.parseLong(eventId.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public synchronized int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /** Changes published since startup. */
+    public long publishedCount() {
+        return published.sum();
+    }
+
+    /** Subscribers closed for falling too far behind. */
+    public long laggingCount() {
+        return lagging.sum();
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        subscribers.remove(subscription);
+    }
+
+    public final class Subscription {
+
+        private final BlockingQueue<BookChangeDTO> queue = new LinkedBlockingQueue<>();
+        /** Changes the queue may hold before the subscriber counts as lagging; guarded by the feed. */
+        private int capacity = subscriberBuffer;
+        private volatile boolean closed;
+
+        private Subscription() {
+        }
+
+        // called with the feed locked, so never blocks; false when the subscription is (now) closed
+        private boolean offer(BookChangeDTO change) {
+            if (closed) return false;
+            if (queue.size() >= capacity) {
+                lagging.increment();
+                markClosed();
+                return false;
+            }
+            queue.add(change);
+            return true;
+        }
+
+        /** The next change, or null when none arrived within {@code timeout} or the subscription closed. */
+        public BookChangeDTO poll(Duration timeout) throws InterruptedException {
+            if (closed) return null;
+            BookChangeDTO change = queue.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return change == CLOSED || closed ? null : change;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        public void close() {
+            markClosed();
+            unsubscribe(this);
+        }
+
+        private void markClosed() {
+            if (closed) return;
+            closed = true;
+            queue.clear();
+            queue.add(CLOSED);
+        }
+    }
+}
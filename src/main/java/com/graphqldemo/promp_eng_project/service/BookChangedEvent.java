@@ -0,0 +1,67 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Published by {@link BookService} for every book it writes. In-memory read structures listen with
+ * {@code @TransactionalEventListener} so they only see changes that actually committed.
+ */
+@Data
+@AllArgsConstructor
+public class BookChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        /**
+         * Set-based update; {@code book} is null and {@code bookIds} names the rows it changed (one event per
+         * chunk of a large update), or is null when they are not known.
+         */
+        BULK_UPDATED
+    }
+
+    private final Type type;
+    private final BookDTO book;
+    /** Price before an UPDATED change, when known; lets aggregates retract the old value. */
+    private final BigDecimal previousPrice;
+    /**
+     * Row version the change committed as, when known. After-commit listeners do not run in commit order,
+     * so copies of the rows use it to ignore a change older than the one they already hold.
+     */
+    private final Long version;
+    /** Books a BULK_UPDATED change touched; null for other types. */
+    private final List<Long> bookIds;
+
+    public static BookChangedEvent created(BookDTO book) {
+        return created(book, null);
+    }
+
+    public static BookChangedEvent created(BookDTO book, Long version) {
+        return new BookChangedEvent(Type.CREATED, book, null, version, null);
+    }
+
+    public static BookChangedEvent updated(BookDTO book) {
+        return updated(book, null, null);
+    }
+
+    public static BookChangedEvent updated(BookDTO book, BigDecimal previousPrice) {
+        return updated(book, previousPrice, null);
+    }
+
+    public static BookChangedEvent updated(BookDTO book, BigDecimal previousPrice, Long version) {
+        return new BookChangedEvent(Type.UPDATED, book, previousPrice, version, null);
+    }
+
+    public static BookChangedEvent bulkUpdated() {
+        return bulkUpdated(null);
+    }
+
+    public static BookChangedEvent bulkUpdated(List<Long> bookIds) {
+        return new BookChangedEvent(Type.BULK_UPDATED, null, null, null, bookIds == null ? null : List.copyOf(bookIds));
+    }
+}
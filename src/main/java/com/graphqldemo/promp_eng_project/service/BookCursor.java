@@ -0,0 +1,79 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page: the sort it was produced with, the row id and,
+ * for price/title sorts, the sort key. Encoded as url-safe base64 so clients treat it as opaque.
+ * {@link AuthorService} pages authors by id with {@link BookSort#ID} cursors.
+ */
+final class BookCursor {
+
+    private final BookSort sort;
+    private final long id;
+    private final String key;
+
+    BookCursor(BookSort sort, long id, String key) {
+        this.sort = sort;
+        this.id = id;
+        this.key = key;
+    }
+
+    BookSort getSort() {
+        return sort;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    BigDecimal getPriceKey() {
+        return new BigDecimal(key);
+    }
+
+    String encode() {
+        String raw = sort.name() + ":" + id + ":" + (key == null ? "" : key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()} and check it was issued for {@code expectedSort}.
+     */
+    static BookCursor decode(String token, BookSort expectedSort) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+        // the key is last so titles containing ':' survive the split
+        String[] parts = raw.split(":", 3);
+        if (parts.length != 3) throw new IllegalArgumentException("invalid cursor");
+
+        BookSort sort;
+        long id;
+        try {
+            sort = BookSort.valueOf(parts[0]);
+            id = Long.parseLong(parts[1]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+        if (sort != expectedSort) throw new IllegalArgumentException("cursor was issued for sort " + sort.name().toLowerCase());
+
+        BookCursor cursor = new BookCursor(sort, id, parts[2]);
+        if (sort == BookSort.PRICE) {
+            try {
+                cursor.getPriceKey();
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid cursor");
+            }
+        }
+        return cursor;
+    }
+}
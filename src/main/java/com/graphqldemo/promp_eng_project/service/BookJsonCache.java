@@ -0,0 +1,98 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.CacheStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Single-book responses kept as already-encoded UTF-8 JSON (and, when enabled, gzip) so a hit costs no
+ * DTO mapping and no serialization. Uses the application's ObjectMapper, so the bytes are exactly what
+ * the regular message converter would have written.
+ * <p>
+ * Evicted after commit, after {@link BookCache} (see the listener order), so a reload never re-encodes
+ * a stale DTO.
+ */
+@Component
+public class BookJsonCache {
+
+    public record Encoded(byte[] json, byte[] gzip) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean gzip;
+    private final Cache<Long, Encoded> byId;
+
+    public BookJsonCache(ObjectMapper objectMapper,
+                         @Value("${catalog.json-cache.enabled:false}") boolean enabled,
+                         @Value("${catalog.json-cache.gzip:false}") boolean gzip,
+                         @Value("${catalog.json-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${catalog.cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.gzip = gzip;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Whether a request with this {@code Accept-Encoding} is answered with the gzip body. */
+    public boolean servesGzip(String acceptEncoding) {
+        return enabled && gzip && acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    public Optional<Encoded> getById(Long id, Function<Long, Optional<BookDTO>> loader) {
+        return Optional.ofNullable(byId.get(id, key -> loader.apply(key).map(this::encode).orElse(null)));
+    }
+
+    private Encoded encode(BookDTO book) {
+        byte[] json = objectMapper.writeValueAsBytes(book);
+        return new Encoded(json, gzip ? gzip(json) : null);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 32);
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(BookCache.LISTENER_ORDER + 1)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.BULK_UPDATED) {
+            byId.invalidateAll();
+        } else if (event.getBook() != null && event.getBook().getId() != null) {
+            byId.invalidate(event.getBook().getId());
+        }
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats s = byId.stats();
+        return new CacheStatsDTO("books.json", byId.estimatedSize(), s.hitCount(), s.missCount(), s.hitRate(), s.evictionCount());
+    }
+}
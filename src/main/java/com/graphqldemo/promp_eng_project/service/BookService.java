@@ -1,43 +1,161 @@
 package com.graphqldemo.promp_eng_project.service;
 
 import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.BookImportResultDTO;
+import com.graphqldemo.promp_eng_project.dto.BookImportSummaryDTO;
+import com.graphqldemo.promp_eng_project.dto.BookPageDTO;
+import com.graphqldemo.promp_eng_project.dto.BookSuggestionDTO;
+import com.graphqldemo.promp_eng_project.dto.BulkDiscountRequestDTO;
+import com.graphqldemo.promp_eng_project.dto.BulkDiscountResultDTO;
+import com.graphqldemo.promp_eng_project.dto.CacheStatsDTO;
+import com.graphqldemo.promp_eng_project.dto.CatalogStatsDTO;
+import com.graphqldemo.promp_eng_project.dto.ConflictStatsDTO;
 import com.graphqldemo.promp_eng_project.entity.Author;
 import com.graphqldemo.promp_eng_project.entity.Book;
 import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
 import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("catalog.service")
 public class BookService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    public static final int DEFAULT_SUGGESTIONS = 10;
+    public static final int MAX_SUGGESTIONS = 100;
+    
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    /** books.price is numeric(10, 2) */
+    static final int PRICE_SCALE = 2;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+    
+    /** Rows exported between persistence-context clears; matches the repository fetch size. */
+    static final int EXPORT_CHUNK_SIZE = 500;
+    
+    /** Books persisted between flushes in {@link #importBooks}; matches hibernate.jdbc.batch_size. */
+    static final int IMPORT_BATCH_SIZE = 50;
+    
+    /** Largest id list bound into one IN clause. */
+    static final int IN_CLAUSE_CHUNK = 1000;
+    
+    /** Most {@code bookIds} one bulk discount may name; larger promotions select by author or price. */
+    public static final int MAX_BULK_BOOK_IDS = 10_000;
+    
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
+    private final EntityManager entityManager;
+    private final TitleSearchIndex titleSearchIndex;
+    private final TitleSuggestIndex titleSuggestIndex;
+    private final BookCache bookCache;
+    private final CatalogVersion catalogVersion;
+    private final OptimisticRetry optimisticRetry;
+    private final CatalogStats catalogStats;
+    private final TitleBloomFilter titleBloomFilter;
+    private final CatalogSnapshot catalogSnapshot;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Read paths run in read-only transactions: Hibernate loads entities without dirty-checking snapshots
+    // and never flushes, and with catalog.datasource.replica.enabled they are routed to the replica.
+    // Cached lookups join an existing transaction but do not start one, so a cache hit never checks out
+    // a connection; on a miss the repository call runs in its own read-only transaction. The same goes for
+    // reads answered by the CatalogSnapshot when catalog.snapshot.enabled: they never touch the database.
     
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<BookDTO> findBookByTitle(String title) {
-        return bookRepository.findByTitle(title)
-                .map(this::convertToDTO);
+        if (catalogSnapshot.isReady()) return catalogSnapshot.current().byTitle(title);
+        return bookCache.getByTitle(title, key -> bookRepository.findByTitle(key)
+                .map(BookService::convertToDTO));
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<BookDTO> findBooksByTitleContaining(String title) {
-        return bookRepository.findByTitleContainingIgnoreCase(title)
+        return findBooksByTitleContaining(title, null);
+    }
+    
+    /**
+     * Case-insensitive substring search, at most {@code limit} results (all when null).
+     * Served from the in-memory {@link TitleSearchIndex} when it is warm; otherwise falls back to a LIKE query.
+     * With the {@link CatalogSnapshot} ready, the books come from it (scanning it when the index cannot answer).
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<BookDTO> findBooksByTitleContaining(String title, Integer limit) {
+        if (limit != null && limit < 1) throw new IllegalArgumentException("limit must be positive");
+        int max = limit == null ? Integer.MAX_VALUE : limit;
+        
+        if (title != null && catalogSnapshot.isReady()) {
+            BookSnapshot snapshot = catalogSnapshot.current();
+            return titleSearchIndex.canAnswer(title)
+                    ? snapshot.byIds(titleSearchIndex.search(title, max))
+                    : snapshot.titleContaining(title, max);
+        }
+        
+        List<Book> books;
+        if (titleSearchIndex.canAnswer(title)) {
+            List<Long> ids = titleSearchIndex.search(title, max);
+            books = findAllWithAuthorByIds(ids);
+        } else {
+            books = bookRepository.findByTitleContainingIgnoreCase(title, limit == null ? Limit.unlimited() : Limit.of(limit));
+        }
+        return books.stream()
+                .map(BookService::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Type-ahead: up to {@code limit} books whose title starts with {@code prefix} ignoring case, ordered by title.
+     * Answered from the in-memory {@link TitleSuggestIndex}, or by the database while it is still loading.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<BookSuggestionDTO> suggestTitles(String prefix, Integer limit) {
+        if (prefix == null) throw new IllegalArgumentException("prefix is required");
+        int max = limit == null ? DEFAULT_SUGGESTIONS : limit;
+        if (max < 1 || max > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        
+        if (titleSuggestIndex.isReady()) {
+            return titleSuggestIndex.suggest(prefix, max);
+        }
+        return bookRepository.findByTitleStartingWithIgnoreCaseOrderByTitleAscIdAsc(prefix, Limit.of(max))
                 .stream()
-                .map(this::convertToDTO)
+                .map(view -> new BookSuggestionDTO(view.getId(), view.getTitle()))
                 .collect(Collectors.toList());
     }
     
     public BookDTO addBook(String title, String authorName, BigDecimal price) {
-        if (bookRepository.existsByTitle(title)) {
-            throw new IllegalArgumentException("Book with title '" + title + "' already exists");
-        }
+        checkTitleAvailable(title);
         
         Author author = authorRepository.findByName(authorName)
                 .orElseThrow(() -> new IllegalArgumentException("Author '" + authorName + "' not found"));
@@ -45,10 +163,12 @@ public class BookService {
         Book book = new Book();
         book.setTitle(title);
         book.setAuthor(author);
-        book.setPrice(price);
+        book.setPrice(price == null ? null : storedPrice(price));
         
-        Book savedBook = bookRepository.save(book);
-        return convertToDTO(savedBook);
+        Book savedBook = insert(book);
+        BookDTO created = convertToDTO(savedBook);
+        eventPublisher.publishEvent(BookChangedEvent.created(created, savedBook.getVersion()));
+        return created;
     }
     
     /**
@@ -56,20 +176,15 @@ public class BookService {
      * Performs minimal validations and throws IllegalArgumentException for bad input (mapped to 400 by controller).
      */
     public BookDTO createBook(BookDTO dto) {
-        if (dto == null) throw new IllegalArgumentException("payload empty");
-        if (dto.getTitle() == null || dto.getTitle().isBlank()) throw new IllegalArgumentException("title is required");
-        if (dto.getPrice() == null) throw new IllegalArgumentException("price is required");
-        if (dto.getPrice().compareTo(BigDecimal.ZERO) < 0) throw new IllegalArgumentException("price must be non-negative");
-
+        validateBook(dto);
+        checkTitleAvailable(dto.getTitle());
         com.graphqldemo.promp_eng_project.dto.AuthorDTO authorDto = dto.getAuthor();
-        if (authorDto == null) throw new IllegalArgumentException("author is required");
 
         Author authorEntity = null;
         if (authorDto.getId() != null) {
             authorEntity = authorRepository.findById(authorDto.getId())
                     .orElseThrow(() -> new IllegalArgumentException("author not found"));
         } else {
-            if (authorDto.getName() == null || authorDto.getName().isBlank()) throw new IllegalArgumentException("author.name is required");
             // Basic email format check (defer to controller/validation in real app)
             if (authorDto.getBio() == null) authorDto.setBio(null);
             Author a = new Author();
@@ -83,56 +198,524 @@ public class BookService {
         book.setAuthor(authorEntity);
         book.setPrice(dto.getPrice());
 
-        Book saved = bookRepository.save(book);
-        return convertToDTO(saved);
+        Book saved = insert(book);
+        BookDTO created = convertToDTO(saved);
+        eventPublisher.publishEvent(BookChangedEvent.created(created, saved.getVersion()));
+        return created;
     }
 
-    public BookDTO applyDiscount(Long bookId, BigDecimal discountPercentage) {
-        if (discountPercentage.compareTo(BigDecimal.ZERO) < 0 || 
-            discountPercentage.compareTo(BigDecimal.valueOf(100)) > 0) {
-            throw new IllegalArgumentException("Discount percentage must be between 0 and 100");
+    /**
+     * Bulk variant of {@link #createBook(BookDTO)}. Every entry is validated before anything is written;
+     * invalid entries are reported and skipped, the rest are inserted in one transaction.
+     * Authors given by id are loaded with one query; authors given by name are resolved (or created) once
+     * per distinct name rather than once per book. Books are persisted in chunks of {@link #IMPORT_BATCH_SIZE}
+     * so inserts go out as JDBC batches and the persistence context stays small.
+     */
+    public BookImportSummaryDTO importBooks(List<BookDTO> dtos) {
+        if (dtos == null) throw new IllegalArgumentException("payload empty");
+
+        BookImportResultDTO[] results = new BookImportResultDTO[dtos.size()];
+        int created = importInto(dtos, results, new BookDTO[dtos.size()], false);
+        return new BookImportSummaryDTO(created, dtos.size() - created, Arrays.asList(results));
+    }
+
+    /** Outcome of one entry of {@link #createBooks}: the created book, or why the entry was rejected. */
+    public record Created(BookDTO book, String error) {
+    }
+
+    /**
+     * {@link #importBooks} for callers that need the created books themselves, such as the group-commit
+     * pipeline answering each queued request. Entries are validated and rejected individually; the rest are
+     * written in one transaction, so anything thrown from here means nothing was written.
+     * <p>
+     * Each entry gets what {@link #createBook} would have done with it: an author given by name is created
+     * for that book rather than matched by name, and a title repeated within the list is rejected with the
+     * usual "already exists" message, as the later of two single creates would be.
+     */
+    public List<Created> createBooks(List<BookDTO> dtos) {
+        BookImportResultDTO[] results = new BookImportResultDTO[dtos.size()];
+        BookDTO[] books = new BookDTO[dtos.size()];
+        importInto(dtos, results, books, true);
+        List<Created> created = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            created.add(new Created(books[i], results[i].getError()));
+        }
+        return created;
+    }
+
+    /** {@code asCreates}: follow {@link #createBook}'s rules for named authors and repeated titles (see {@link #createBooks}). */
+    private int importInto(List<BookDTO> dtos, BookImportResultDTO[] results, BookDTO[] books, boolean asCreates) {
+        Set<Long> authorIds = new HashSet<>();
+        Map<String, String> bioByName = new LinkedHashMap<>();
+        Set<String> titles = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            BookDTO dto = dtos.get(i);
+            try {
+                validateBook(dto);
+            } catch (IllegalArgumentException e) {
+                results[i] = BookImportResultDTO.rejected(i, e.getMessage());
+                continue;
+            }
+            if (!titles.add(dto.getTitle())) {
+                results[i] = BookImportResultDTO.rejected(i,
+                        asCreates ? duplicateTitle(dto.getTitle()).getMessage() : "duplicate title in request");
+                continue;
+            }
+            com.graphqldemo.promp_eng_project.dto.AuthorDTO authorDto = dto.getAuthor();
+            if (authorDto.getId() != null) {
+                authorIds.add(authorDto.getId());
+            } else if (!asCreates) {
+                bioByName.putIfAbsent(authorDto.getName(), authorDto.getBio());
+            }
+        }
+
+        // only titles the filter cannot rule out are looked up, in one query per IN_CLAUSE_CHUNK titles
+        Set<String> taken = findExistingTitles(titles.stream().filter(titleBloomFilter::mightContain).toList());
+        for (int i = 0; i < dtos.size(); i++) {
+            if (results[i] == null && taken.contains(dtos.get(i).getTitle())) {
+                results[i] = BookImportResultDTO.rejected(i, "Book with title '" + dtos.get(i).getTitle() + "' already exists");
+            }
+        }
+        
+        Map<Long, Author> authorsById = new HashMap<>();
+        if (!authorIds.isEmpty()) {
+            findAuthorsByIds(new ArrayList<>(authorIds)).forEach(a -> authorsById.put(a.getId(), a));
+        }
+        Map<String, Author> authorsByName = new HashMap<>();
+        if (!bioByName.isEmpty()) {
+            findAuthorsByNames(new ArrayList<>(bioByName.keySet())).forEach(a -> authorsByName.putIfAbsent(a.getName(), a));
+            List<Author> missing = new ArrayList<>();
+            bioByName.forEach((name, bio) -> {
+                if (!authorsByName.containsKey(name)) {
+                    Author a = new Author();
+                    a.setName(name);
+                    a.setBio(bio);
+                    missing.add(a);
+                }
+            });
+            authorRepository.saveAll(missing).forEach(a -> authorsByName.put(a.getName(), a));
+        }
+        // as createBook: a new author for every book that names one, saved together
+        Author[] ownAuthors = new Author[dtos.size()];
+        if (asCreates) {
+            List<Author> fresh = new ArrayList<>();
+            for (int i = 0; i < dtos.size(); i++) {
+                com.graphqldemo.promp_eng_project.dto.AuthorDTO authorDto = dtos.get(i).getAuthor();
+                if (results[i] != null || authorDto.getId() != null) continue;
+                Author a = new Author();
+                a.setName(authorDto.getName());
+                a.setBio(authorDto.getBio());
+                ownAuthors[i] = a;
+                fresh.add(a);
+            }
+            authorRepository.saveAll(fresh);
+        }
+
+        int created = 0;
+        for (int i = 0; i < dtos.size(); i++) {
+            if (results[i] != null) continue;
+            BookDTO dto = dtos.get(i);
+            com.graphqldemo.promp_eng_project.dto.AuthorDTO authorDto = dto.getAuthor();
+            Author author = authorDto.getId() != null ? authorsById.get(authorDto.getId())
+                    : asCreates ? ownAuthors[i]
+                    : authorsByName.get(authorDto.getName());
+            if (author == null) {
+                results[i] = BookImportResultDTO.rejected(i, "author not found");
+                continue;
+            }
+
+            Book book = new Book();
+            book.setTitle(dto.getTitle());
+            book.setAuthor(author);
+            book.setPrice(dto.getPrice());
+            entityManager.persist(book);
+            results[i] = BookImportResultDTO.created(i, book.getId());
+            books[i] = convertToDTO(book);
+            // the version is seeded on persist
+            eventPublisher.publishEvent(BookChangedEvent.created(books[i], book.getVersion()));
+
+            if (++created % IMPORT_BATCH_SIZE == 0) {
+                flushImportBatch();
+            }
+        }
+        flushImportBatch();
+        return created;
+    }
+
+    private void flushImportBatch() {
+        try {
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            // a title inserted concurrently after the duplicate check; the whole import rolls back
+            if (isDuplicateTitle(e)) throw new IllegalArgumentException("a title in the request was added concurrently; retry the import");
+            throw e;
+        }
+        entityManager.clear();
+    }
+    
+    /**
+     * Fails fast on a title that is already taken. Titles the Bloom filter has never seen skip the query;
+     * the unique constraint, checked in {@link #insert}, still catches a concurrent insert of the same title.
+     */
+    private void checkTitleAvailable(String title) {
+        if (titleBloomFilter.mightContain(title) && bookRepository.existsByTitle(title)) {
+            throw duplicateTitle(title);
+        }
+    }
+    
+    /** Inserts immediately so a unique-constraint violation is reported here rather than at commit. */
+    private Book insert(Book book) {
+        try {
+            return bookRepository.saveAndFlush(book);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateTitle(e)) throw duplicateTitle(book.getTitle());
+            throw e;
+        }
+    }
+    
+    private Set<String> findExistingTitles(List<String> titles) {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < titles.size(); from += IN_CLAUSE_CHUNK) {
+            existing.addAll(bookRepository.findExistingTitles(titles.subList(from, Math.min(from + IN_CLAUSE_CHUNK, titles.size()))));
+        }
+        return existing;
+    }
+    
+    private List<Author> findAuthorsByIds(List<Long> ids) {
+        List<Author> authors = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK) {
+            authors.addAll(authorRepository.findAllById(ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK, ids.size()))));
+        }
+        return authors;
+    }
+    
+    private List<Author> findAuthorsByNames(List<String> names) {
+        List<Author> authors = new ArrayList<>();
+        for (int from = 0; from < names.size(); from += IN_CLAUSE_CHUNK) {
+            authors.addAll(authorRepository.findByNameIn(names.subList(from, Math.min(from + IN_CLAUSE_CHUNK, names.size()))));
+        }
+        return authors;
+    }
+    
+    private static IllegalArgumentException duplicateTitle(String title) {
+        return new IllegalArgumentException("Book with title '" + title + "' already exists");
+    }
+    
+    private static boolean isDuplicateTitle(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String name = violation.getConstraintName();
+                return name != null && name.toLowerCase(Locale.ROOT).contains(Book.UNIQUE_TITLE);
+            }
+        }
+        return false;
+    }
+    
+    private void validateBook(BookDTO dto) {
+        if (dto == null) throw new IllegalArgumentException("payload empty");
+        if (dto.getTitle() == null || dto.getTitle().isBlank()) throw new IllegalArgumentException("title is required");
+        if (dto.getPrice() == null) throw new IllegalArgumentException("price is required");
+        if (dto.getPrice().compareTo(BigDecimal.ZERO) < 0) throw new IllegalArgumentException("price must be non-negative");
+        // what numeric(10, 2) will hold, so the response and the change event carry the stored value
+        dto.setPrice(storedPrice(dto.getPrice()));
+
+        com.graphqldemo.promp_eng_project.dto.AuthorDTO authorDto = dto.getAuthor();
+        if (authorDto == null) throw new IllegalArgumentException("author is required");
+        if (authorDto.getId() == null && (authorDto.getName() == null || authorDto.getName().isBlank())) {
+            throw new IllegalArgumentException("author.name is required");
         }
+    }
+
+    // Not transactional itself: each attempt runs in its own transaction so a lost version check can be
+    // retried from a fresh read instead of overwriting the concurrent discount.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BookDTO applyDiscount(Long bookId, BigDecimal discountPercentage) {
+        validateDiscount(discountPercentage);
         
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new IllegalArgumentException("Book with id " + bookId + " not found"));
+        return optimisticRetry.execute(status -> {
+            Book book = bookRepository.findWithAuthorById(bookId)
+                    .orElseThrow(() -> new IllegalArgumentException("Book with id " + bookId + " not found"));
+            
+            BigDecimal previousPrice = book.getPrice();
+            book.setPrice(discountedPrice(previousPrice, discountPercentage));
+            
+            // flushed here so the event carries the version this update commits as
+            Book savedBook = bookRepository.saveAndFlush(book);
+            BookDTO updated = convertToDTO(savedBook);
+            eventPublisher.publishEvent(BookChangedEvent.updated(updated, previousPrice, savedBook.getVersion()));
+            return updated;
+        });
+    }
+    
+    /**
+     * Apply one discount to every book matched by the request's selector with set-based UPDATEs by id,
+     * computing {@code ROUND(price * (100 - pct) / 100, 2)} in the database; the same validation and
+     * rounding as {@link #applyDiscount}. The matching ids are read first, so the change events can name
+     * the books they changed and, when requested, the rows can be reloaded after their prices (and so a
+     * price band) have changed.
+     */
+    public BulkDiscountResultDTO applyBulkDiscount(BulkDiscountRequestDTO request) {
+        if (request == null) throw new IllegalArgumentException("payload empty");
+        validateDiscount(request.getDiscountPercentage());
         
-        BigDecimal discountAmount = book.getPrice()
-                .multiply(discountPercentage)
-                .divide(BigDecimal.valueOf(100));
+        boolean byAuthor = request.getAuthorId() != null;
+        boolean byPrice = request.getMinPrice() != null || request.getMaxPrice() != null;
+        boolean byIds = request.getBookIds() != null && !request.getBookIds().isEmpty();
+        if ((byAuthor ? 1 : 0) + (byPrice ? 1 : 0) + (byIds ? 1 : 0) != 1) {
+            throw new IllegalArgumentException("exactly one of authorId, minPrice/maxPrice or bookIds is required");
+        }
+        if (byIds && request.getBookIds().size() > MAX_BULK_BOOK_IDS) {
+            throw new IllegalArgumentException("at most " + MAX_BULK_BOOK_IDS + " bookIds are allowed");
+        }
+        if (byIds && request.getBookIds().stream().anyMatch(id -> id == null)) {
+            throw new IllegalArgumentException("bookIds must not contain null");
+        }
+        BigDecimal minPrice = request.getMinPrice() != null ? request.getMinPrice() : BigDecimal.ZERO;
+        BigDecimal maxPrice = request.getMaxPrice() != null ? request.getMaxPrice() : MAX_PRICE;
+        if (byPrice && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
         
-        BigDecimal newPrice = book.getPrice().subtract(discountAmount);
-        book.setPrice(newPrice);
+        BigDecimal factor = discountFactor(request.getDiscountPercentage());
+        // the ids are read first so the change events can name the books they changed
+        List<Long> ids;
+        if (byAuthor) {
+            ids = bookRepository.findIdsByAuthorId(request.getAuthorId());
+        } else if (byPrice) {
+            ids = bookRepository.findIdsByPriceBetween(minPrice, maxPrice);
+        } else {
+            ids = request.getBookIds();
+        }
+        int updated = applyDiscountByIds(ids, factor);
+        if (!request.isReturnBooks()) return new BulkDiscountResultDTO(updated, null);
         
-        Book savedBook = bookRepository.save(book);
-        return convertToDTO(savedBook);
+        List<BookDTO> books = findAllWithAuthorByIds(ids)
+                .stream()
+                .map(BookService::convertToDTO)
+                .collect(Collectors.toList());
+        return new BulkDiscountResultDTO(updated, books);
     }
     
+    private void validateDiscount(BigDecimal discountPercentage) {
+        if (discountPercentage == null) throw new IllegalArgumentException("discountPercentage is required");
+        if (discountPercentage.compareTo(BigDecimal.ZERO) < 0 || 
+            discountPercentage.compareTo(HUNDRED) > 0) {
+            throw new IllegalArgumentException("Discount percentage must be between 0 and 100");
+        }
+    }
+    
+    /** {@code price} rounded half-up to the column's two decimals, as the database would store it. */
+    static BigDecimal storedPrice(BigDecimal price) {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP);
+    }
+    
+    /** Multiplier {@code (100 - pct) / 100}; dividing by 100 is always exact. */
+    static BigDecimal discountFactor(BigDecimal discountPercentage) {
+        return HUNDRED.subtract(discountPercentage).divide(HUNDRED);
+    }
+    
+    /**
+     * {@code price - price * pct / 100}, rounded half-up to the column's two decimals so the value
+     * returned is the value stored, and matches the bulk UPDATE.
+     */
+    static BigDecimal discountedPrice(BigDecimal price, BigDecimal discountPercentage) {
+        return storedPrice(price.multiply(discountFactor(discountPercentage)));
+    }
+    
+    /**
+     * Books of each given author, in id order, loaded with one query per {@link #IN_CLAUSE_CHUNK} authors.
+     * Authors without books map to an empty list.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<BookDTO>> getBooksByAuthorIds(Collection<Long> authorIds) {
+        Map<Long, List<BookDTO>> byAuthor = new LinkedHashMap<>();
+        authorIds.forEach(id -> byAuthor.put(id, new ArrayList<>()));
+        List<Long> ids = new ArrayList<>(byAuthor.keySet());
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK, ids.size()));
+            for (Book book : bookRepository.findAllWithAuthorByAuthorIdIn(chunk)) {
+                byAuthor.get(book.getAuthor().getId()).add(convertToDTO(book));
+            }
+        }
+        return byAuthor;
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<BookDTO> getAllBooks() {
-        return bookRepository.findAll()
+        if (catalogSnapshot.isReady()) return catalogSnapshot.current().all();
+        return bookRepository.findAllWithAuthor()
                 .stream()
-                .map(this::convertToDTO)
+                .map(BookService::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Keyset page of books ordered by {@code sort} (id, price or title; ties broken on id).
+     * {@code after} is the {@code nextCursor} of the previous page, or null for the first page.
+     * Each page is a single index seek, so the cost does not grow with how deep the client pages.
+     */
+    @Transactional(readOnly = true)
+    public BookPageDTO getBooksPage(String after, Integer limit, String sort) {
+        int pageSize = pageSize(limit);
+        BookSort bookSort = BookSort.parse(sort);
+        BookCursor cursor = (after == null || after.isBlank()) ? null : BookCursor.decode(after, bookSort);
+        
+        // read one extra row to learn whether another page exists without a count query
+        Limit fetch = Limit.of(pageSize + 1);
+        List<Book> rows = switch (bookSort) {
+            case ID -> cursor == null
+                    ? bookRepository.findFirstPageById(fetch)
+                    : bookRepository.findPageAfterId(cursor.getId(), fetch);
+            case PRICE -> cursor == null
+                    ? bookRepository.findFirstPageByPrice(fetch)
+                    : bookRepository.findPageAfterPrice(cursor.getPriceKey(), cursor.getId(), fetch);
+            case TITLE -> cursor == null
+                    ? bookRepository.findFirstPageByTitle(fetch)
+                    : bookRepository.findPageAfterTitle(cursor.getKey(), cursor.getId(), fetch);
+        };
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<Book> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? cursorFor(page.get(page.size() - 1), bookSort).encode() : null;
+        
+        List<BookDTO> items = page.stream()
+                .map(BookService::convertToDTO)
                 .collect(Collectors.toList());
+        return new BookPageDTO(items, nextCursor, pageSize);
+    }
+    
+    /**
+     * Throws the IllegalArgumentException {@link #getBooksPage} would for these parameters, without reading
+     * anything; lets a conditional GET reject bad parameters before answering 304.
+     */
+    public void validatePageRequest(String after, Integer limit, String sort) {
+        pageSize(limit);
+        BookSort bookSort = BookSort.parse(sort);
+        if (after != null && !after.isBlank()) BookCursor.decode(after, bookSort);
+    }
+    
+    private static int pageSize(Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return pageSize;
     }
     
+    /**
+     * Stream every book, in id order, to {@code sink} as it is read from a server-side cursor.
+     * The persistence context is cleared every {@link #EXPORT_CHUNK_SIZE} rows so memory stays flat
+     * however large the catalog is. Returns the number of books written.
+     */
+    @Transactional(readOnly = true)
+    public long exportBooks(Consumer<BookDTO> sink) {
+        long count = 0;
+        try (Stream<Book> books = bookRepository.streamAllWithAuthor()) {
+            Iterator<Book> it = books.iterator();
+            while (it.hasNext()) {
+                sink.accept(convertToDTO(it.next()));
+                if (++count % EXPORT_CHUNK_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<BookDTO> getBookById(Long id) {
-        return bookRepository.findById(id)
-                .map(this::convertToDTO);
+        if (catalogSnapshot.isReady()) return catalogSnapshot.current().byId(id);
+        return bookCache.getById(id, key -> bookRepository.findWithAuthorById(key)
+                .map(BookService::convertToDTO));
+    }
+    
+    /**
+     * Version and last-modified time of the catalog as a whole; changes after every committed write.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CatalogVersion.Stamp getCatalogStamp() {
+        return catalogVersion.current();
+    }
+    
+    /**
+     * Book count and min/avg/max price per author, from in-memory aggregates.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CatalogStatsDTO getCatalogStats() {
+        return catalogStats.stats();
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ConflictStatsDTO getConflictStats() {
+        return optimisticRetry.stats();
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CacheStatsDTO> getCacheStats() {
+        return bookCache.stats();
+    }
+    
+    /**
+     * The discount UPDATE for the given ids, one statement per {@link #IN_CLAUSE_CHUNK} ids so a large
+     * promotion stays under the driver's bind-parameter limit; all in the caller's transaction. Ids are
+     * deduplicated first: a repeated id split across two chunks would otherwise be discounted twice.
+     * Each chunk publishes one BULK_UPDATED change naming its ids.
+     */
+    private int applyDiscountByIds(List<Long> ids, BigDecimal factor) {
+        List<Long> distinct = ids.stream().distinct().sorted().collect(Collectors.toList());
+        int updated = 0;
+        for (int from = 0; from < distinct.size(); from += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + IN_CLAUSE_CHUNK, distinct.size()));
+            updated += bookRepository.applyDiscountByIds(chunk, factor);
+            eventPublisher.publishEvent(BookChangedEvent.bulkUpdated(chunk));
+        }
+        return updated;
+    }
+    
+    /**
+     * Load books (with authors) by id, in id order, splitting the IN list so large result sets stay under
+     * the driver's bind-parameter limit.
+     */
+    private List<Book> findAllWithAuthorByIds(List<Long> ids) {
+        if (ids.size() <= IN_CLAUSE_CHUNK) {
+            return ids.isEmpty() ? List.of() : bookRepository.findAllWithAuthorByIdIn(ids);
+        }
+        List<Long> sorted = ids.stream().sorted().collect(Collectors.toList());
+        List<Book> books = new ArrayList<>(sorted.size());
+        for (int from = 0; from < sorted.size(); from += IN_CLAUSE_CHUNK) {
+            books.addAll(bookRepository.findAllWithAuthorByIdIn(sorted.subList(from, Math.min(from + IN_CLAUSE_CHUNK, sorted.size()))));
+        }
+        return books;
+    }
+    
+    private BookCursor cursorFor(Book last, BookSort sort) {
+        return switch (sort) {
+            case ID -> new BookCursor(sort, last.getId(), null);
+            case PRICE -> new BookCursor(sort, last.getId(), last.getPrice().toPlainString());
+            case TITLE -> new BookCursor(sort, last.getId(), last.getTitle());
+        };
+    }
+    
+    // static and package-private so the mapping benchmarks (src/bench/java) can call it directly
+    static BookDTO convertToDTO(Book book) {
+        return convertToDTO(book, true);
     }
     
-    private BookDTO convertToDTO(Book book) {
+    /** Without the author for books listed under it (see AuthorService), which also leaves it unloaded. */
+    static BookDTO convertToDTO(Book book, boolean includeAuthor) {
         BookDTO bookDTO = new BookDTO();
         bookDTO.setId(book.getId());
         bookDTO.setTitle(book.getTitle());
         bookDTO.setPrice(book.getPrice());
         
-        if (book.getAuthor() != null) {
+        if (includeAuthor && book.getAuthor() != null) {
             bookDTO.setAuthor(convertAuthorToDTO(book.getAuthor()));
         }
         
         return bookDTO;
     }
     
-    private com.graphqldemo.promp_eng_project.dto.AuthorDTO convertAuthorToDTO(Author author) {
+    static com.graphqldemo.promp_eng_project.dto.AuthorDTO convertAuthorToDTO(Author author) {
         com.graphqldemo.promp_eng_project.dto.AuthorDTO authorDTO = 
             new com.graphqldemo.promp_eng_project.dto.AuthorDTO();
         authorDTO.setId(author.getId());
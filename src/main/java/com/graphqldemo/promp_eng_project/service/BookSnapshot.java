@@ -0,0 +1,314 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Immutable, column-per-field copy of the catalog: one primitive or String array per book field, rows in
+ * id order, prices as unscaled longs at the column's two decimals, and each author stored once and
+ * referenced by row number. Per book that is a few dozen bytes plus the title, against a managed
+ * {@code Book}, its {@code Author} proxy, the persistence-context snapshot and the DTO for every read.
+ * <p>
+ * Changes never modify a snapshot: {@link #with} returns a new one that shares the unchanged title and
+ * author strings with this one, so readers holding the old snapshot keep a consistent view. Each row keeps
+ * its version, and a change no newer than the row it targets is ignored, so changes applied out of commit
+ * order cannot bring back an older state.
+ */
+final class BookSnapshot {
+
+    static final BookSnapshot EMPTY = new Builder(null, 0).build(new int[0]);
+
+    private static final long NO_PRICE = Long.MIN_VALUE;
+    /** Version of a row whose change did not say; any known version replaces it. */
+    private static final long NO_VERSION = -1;
+
+    // one entry per book, ascending id
+    private final long[] ids;
+    private final String[] titles;
+    private final long[] prices;
+    private final int[] authorRows;
+    private final long[] versions;
+    /** Book rows ordered by title, for exact-title lookups. */
+    private final int[] byTitle;
+
+    // one entry per author, referenced from authorRows
+    private final long[] authorIds;
+    private final String[] authorNames;
+    private final String[] authorBios;
+
+    private BookSnapshot(long[] ids, String[] titles, long[] prices, int[] authorRows, long[] versions, int[] byTitle,
+                         long[] authorIds, String[] authorNames, String[] authorBios) {
+        this.ids = ids;
+        this.titles = titles;
+        this.prices = prices;
+        this.authorRows = authorRows;
+        this.versions = versions;
+        this.byTitle = byTitle;
+        this.authorIds = authorIds;
+        this.authorNames = authorNames;
+        this.authorBios = authorBios;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    int authors() {
+        return authorIds.length;
+    }
+
+    /** Every book, in id order. */
+    List<BookDTO> all() {
+        List<BookDTO> books = new ArrayList<>(ids.length);
+        for (int row = 0; row < ids.length; row++) books.add(book(row));
+        return books;
+    }
+
+    Optional<BookDTO> byId(Long id) {
+        if (id == null) return Optional.empty();
+        int row = Arrays.binarySearch(ids, id);
+        return row < 0 ? Optional.empty() : Optional.of(book(row));
+    }
+
+    /** Books with the given ids, in the order given; ids not in the snapshot are skipped. */
+    List<BookDTO> byIds(List<Long> bookIds) {
+        List<BookDTO> books = new ArrayList<>(bookIds.size());
+        for (Long id : bookIds) {
+            int row = Arrays.binarySearch(ids, id);
+            if (row >= 0) books.add(book(row));
+        }
+        return books;
+    }
+
+    Optional<BookDTO> byTitle(String title) {
+        if (title == null) return Optional.empty();
+        int lo = 0;
+        int hi = byTitle.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = titles[byTitle[mid]].compareTo(title);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return Optional.of(book(byTitle[mid]));
+        }
+        return Optional.empty();
+    }
+
+    /** Up to {@code limit} books, in id order, whose title contains {@code query} ignoring case; a full scan. */
+    List<BookDTO> titleContaining(String query, int limit) {
+        List<BookDTO> books = new ArrayList<>();
+        for (int row = 0; row < ids.length && books.size() < limit; row++) {
+            if (containsIgnoreCase(titles[row], query)) books.add(book(row));
+        }
+        return books;
+    }
+
+    private static boolean containsIgnoreCase(String s, String needle) {
+        for (int i = 0; i + needle.length() <= s.length(); i++) {
+            if (s.regionMatches(true, i, needle, 0, needle.length())) return true;
+        }
+        return false;
+    }
+
+    /** A fresh DTO per call: callers may modify what they are given. */
+    private BookDTO book(int row) {
+        int a = authorRows[row];
+        AuthorDTO author = a < 0 ? null : new AuthorDTO(authorIds[a], authorNames[a], authorBios[a], null);
+        BigDecimal price = prices[row] == NO_PRICE ? null : BigDecimal.valueOf(prices[row], BookService.PRICE_SCALE);
+        return new BookDTO(ids[row], titles[row], author, price);
+    }
+
+    /**
+     * This snapshot with {@code changes} applied: books with a known id replace their row unless the row is
+     * already at the change's version or later, others are inserted at their id's position. One pass over
+     * the existing rows, so callers should batch changes where they can. Authors are immutable, so an author
+     * already present keeps its name and bio.
+     */
+    BookSnapshot with(Collection<BookChangedEvent> changes) {
+        TreeMap<Long, BookChangedEvent> upserts = new TreeMap<>();
+        for (BookChangedEvent change : changes) {
+            BookDTO book = change.getBook();
+            if (book == null || book.getId() == null) continue;
+            upserts.merge(book.getId(), change, (a, b) -> version(b) >= version(a) ? b : a);
+        }
+        upserts.values().removeIf(change -> {
+            int row = Arrays.binarySearch(ids, change.getBook().getId());
+            return row >= 0 && change.getVersion() != null && change.getVersion() <= versions[row];
+        });
+        if (upserts.isEmpty()) return this;
+
+        Builder builder = new Builder(this, ids.length + upserts.size());
+        // new row of each old row, or -1 when its title changed and it must be placed in title order again
+        int[] moved = new int[ids.length];
+        List<Integer> placed = new ArrayList<>();
+        int row = 0;
+        for (BookChangedEvent change : upserts.values()) {
+            BookDTO book = change.getBook();
+            long id = book.getId();
+            while (row < ids.length && ids[row] < id) {
+                moved[row] = builder.copy(this, row);
+                row++;
+            }
+            boolean replaces = row < ids.length && ids[row] == id;
+            // a change that did not say which version it made keeps the row's
+            long version = change.getVersion() != null ? change.getVersion() : replaces ? versions[row] : NO_VERSION;
+            int added = builder.add(book, version);
+            if (replaces) {
+                moved[row] = titles[row].equals(book.getTitle()) ? added : -1;
+                if (moved[row] < 0) placed.add(added);
+                row++;
+            } else {
+                placed.add(added);
+            }
+        }
+        while (row < ids.length) {
+            moved[row] = builder.copy(this, row);
+            row++;
+        }
+
+        // the old title order, renumbered, merged with the new and retitled rows sorted among themselves
+        Comparator<Integer> byTitleThenId = builder.titleOrder();
+        placed.sort(byTitleThenId);
+        int[] order = new int[builder.size];
+        int n = 0;
+        int p = 0;
+        for (int oldRow : byTitle) {
+            int kept = moved[oldRow];
+            if (kept < 0) continue;
+            while (p < placed.size() && byTitleThenId.compare(placed.get(p), kept) < 0) order[n++] = placed.get(p++);
+            order[n++] = kept;
+        }
+        while (p < placed.size()) order[n++] = placed.get(p++);
+        return builder.build(order);
+    }
+
+    private static long version(BookChangedEvent change) {
+        return change.getVersion() == null ? NO_VERSION : change.getVersion();
+    }
+
+    /** Accumulates rows and authors into growable columns; rows must be added in ascending id order. */
+    static final class Builder {
+
+        private long[] ids;
+        private String[] titles;
+        private long[] prices;
+        private int[] authorRows;
+        private long[] versions;
+        private int size;
+
+        private long[] authorIds;
+        private String[] authorNames;
+        private String[] authorBios;
+        private int authors;
+        private final Map<Long, Integer> authorRowById = new HashMap<>();
+
+        /** Starts with {@code base}'s authors (so its author rows stay valid) and none of its books. */
+        Builder(BookSnapshot base, int expectedBooks) {
+            int capacity = Math.max(expectedBooks, 16);
+            ids = new long[capacity];
+            titles = new String[capacity];
+            prices = new long[capacity];
+            authorRows = new int[capacity];
+            versions = new long[capacity];
+            if (base == null) {
+                authorIds = new long[16];
+                authorNames = new String[16];
+                authorBios = new String[16];
+                return;
+            }
+            authors = base.authorIds.length;
+            authorIds = Arrays.copyOf(base.authorIds, Math.max(authors * 2, 16));
+            authorNames = Arrays.copyOf(base.authorNames, authorIds.length);
+            authorBios = Arrays.copyOf(base.authorBios, authorIds.length);
+            for (int a = 0; a < authors; a++) authorRowById.put(authorIds[a], a);
+        }
+
+        int add(BookDTO book, long version) {
+            AuthorDTO author = book.getAuthor();
+            int authorRow = author == null || author.getId() == null ? -1
+                    : author(author.getId(), author.getName(), author.getBio());
+            return addRow(book.getId(), book.getTitle(), unscaled(book.getPrice()), authorRow, version);
+        }
+
+        int add(long id, String title, BigDecimal price, Long version,
+                Long authorId, String authorName, String authorBio) {
+            int authorRow = authorId == null ? -1 : author(authorId, authorName, authorBio);
+            return addRow(id, title, unscaled(price), authorRow, version == null ? NO_VERSION : version);
+        }
+
+        /** Copies a row of the snapshot this builder was started from. */
+        int copy(BookSnapshot base, int row) {
+            return addRow(base.ids[row], base.titles[row], base.prices[row], base.authorRows[row], base.versions[row]);
+        }
+
+        private int addRow(long id, String title, long price, int authorRow, long version) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                authorRows = Arrays.copyOf(authorRows, capacity);
+                versions = Arrays.copyOf(versions, capacity);
+            }
+            ids[size] = id;
+            titles[size] = title;
+            prices[size] = price;
+            authorRows[size] = authorRow;
+            versions[size] = version;
+            return size++;
+        }
+
+        private int author(long id, String name, String bio) {
+            Integer existing = authorRowById.get(id);
+            if (existing != null) return existing;
+            if (authors == authorIds.length) {
+                authorIds = Arrays.copyOf(authorIds, authors * 2);
+                authorNames = Arrays.copyOf(authorNames, authors * 2);
+                authorBios = Arrays.copyOf(authorBios, authors * 2);
+            }
+            authorIds[authors] = id;
+            authorNames[authors] = name;
+            authorBios[authors] = bio;
+            authorRowById.put(id, authors);
+            return authors++;
+        }
+
+        private static long unscaled(BigDecimal price) {
+            if (price == null) return NO_PRICE;
+            return BookService.storedPrice(price).unscaledValue().longValueExact();
+        }
+
+        private Comparator<Integer> titleOrder() {
+            return (a, b) -> {
+                int cmp = titles[a].compareTo(titles[b]);
+                return cmp != 0 ? cmp : Long.compare(ids[a], ids[b]);
+            };
+        }
+
+        /** Snapshot of the rows added so far, sorting them by title. */
+        BookSnapshot build() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) order[i] = i;
+            Arrays.sort(order, titleOrder());
+            return build(Arrays.stream(order).mapToInt(Integer::intValue).toArray());
+        }
+
+        private BookSnapshot build(int[] byTitle) {
+            return new BookSnapshot(
+                    Arrays.copyOf(ids, size), Arrays.copyOf(titles, size), Arrays.copyOf(prices, size),
+                    Arrays.copyOf(authorRows, size), Arrays.copyOf(versions, size), byTitle,
+                    Arrays.copyOf(authorIds, authors), Arrays.copyOf(authorNames, authors), Arrays.copyOf(authorBios, authors));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import java.util.Locale;
+
+/**
+ * Orderings supported by keyset pagination. Every ordering is tie-broken on id so the
+ * (key, id) pair is unique and can be used as a cursor.
+ */
+public enum BookSort {
+    ID,
+    PRICE,
+    TITLE;
+
+    public static BookSort parse(String value) {
+        if (value == null || value.isBlank()) return ID;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("sort must be one of id, price, title");
+        }
+    }
+}
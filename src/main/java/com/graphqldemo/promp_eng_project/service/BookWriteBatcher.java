@@ -0,0 +1,207 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.GroupCommitStatsDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Group commit for single-book creates. Concurrent {@link #createBook} calls are queued and written by one
+ * committer, up to {@code max-batch-size} books per transaction, so a burst pays one commit (and one
+ * round of JDBC batches) instead of one per book. A request waits at most {@code max-delay} for others to
+ * join its batch before the batch is written.
+ * <p>
+ * Each caller still gets its own outcome: entries that fail validation, name a missing author or reuse a
+ * title are rejected individually by {@link BookService#createBooks}. When the batch transaction itself
+ * fails (for instance a title inserted concurrently by another path), the batch is redone one request per
+ * transaction, so only the offending request fails. Batched or not, a request behaves as
+ * {@link BookService#createBook} would: an author given by name is created for that book, and the later of
+ * two requests for the same title is told the title already exists.
+ * <p>
+ * Callers block until their batch commits, which is cheap on virtual threads. {@code timeout} bounds only
+ * the wait in the queue: a request still queued when it expires is withdrawn and fails with
+ * {@link QueueTimeoutException} (a 503; the book was not created and the request can be retried). A request
+ * whose batch is already being written waits for that batch to finish instead, since failing it then would
+ * report an error for a book the batch may yet commit; that wait is bounded by the transaction itself.
+ * Disabled, before the committer has started, or after it has stopped (including by a failure it could not
+ * handle), every call goes straight to {@link BookService#createBook}.
+ */
+@Component
+public class BookWriteBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BookWriteBatcher.class);
+
+    /** The request waited {@code timeout} in the queue and was withdrawn before any batch took it. */
+    public static class QueueTimeoutException extends IllegalStateException {
+        QueueTimeoutException(Duration timeout) {
+            super("Group commit queue did not reach the request within " + timeout + "; it was not created");
+        }
+    }
+
+    private record Pending(BookDTO book, long enqueuedAt, CompletableFuture<BookDTO> result) {
+    }
+
+    private final BookService bookService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Duration timeout;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private volatile Thread committer;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public BookWriteBatcher(BookService bookService,
+                            @Value("${catalog.group-commit.enabled:false}") boolean enabled,
+                            @Value("${catalog.group-commit.max-batch-size:50}") int maxBatchSize,
+                            @Value("${catalog.group-commit.max-delay:PT0.005S}") Duration maxDelay,
+                            @Value("${catalog.group-commit.timeout:PT10S}") Duration timeout) {
+        if (maxBatchSize < 1) throw new IllegalArgumentException("catalog.group-commit.max-batch-size must be at least 1");
+        this.bookService = bookService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.timeout = timeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || committer != null) return;
+        Thread thread = Thread.ofVirtual().name("book-group-commit").unstarted(this::run);
+        committer = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = committer;
+        committer = null;
+        if (thread != null) thread.interrupt();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Same contract as {@link BookService#createBook}: the created book, or IllegalArgumentException. */
+    public BookDTO createBook(BookDTO dto) {
+        if (committer == null) return bookService.createBook(dto);
+        Pending pending = new Pending(dto, System.nanoTime(), new CompletableFuture<>());
+        queue.add(pending);
+        if (committer == null && queue.remove(pending)) {
+            // stopped while enqueuing and the committer's final drain missed it
+            commitAlone(pending);
+        }
+        try {
+            try {
+                return pending.result().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // still queued: withdraw it, it will not be written; already in a batch: wait for that batch
+                if (queue.remove(pending)) throw new QueueTimeoutException(timeout);
+                return pending.result().get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for group commit", e);
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (committer == Thread.currentThread()) {
+                try {
+                    batch.add(queue.take());
+                    // the first request's deadline caps the wait for the whole batch
+                    long deadline = batch.get(0).enqueuedAt() + maxDelayNanos;
+                    while (batch.size() < maxBatchSize) {
+                        long remaining = deadline - System.nanoTime();
+                        Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                        if (next == null) break;
+                        batch.add(next);
+                    }
+                } catch (InterruptedException e) {
+                    break;
+                }
+                try {
+                    commit(batch);
+                } catch (Throwable t) {
+                    // an Error from the write: fail this batch's callers, not every caller after them
+                    log.error("Group commit of {} books failed", batch.size(), t);
+                    batch.forEach(p -> p.result().completeExceptionally(t));
+                }
+                batch.clear();
+            }
+        } catch (Throwable t) {
+            log.error("Group committer failed; creating books one by one from now on", t);
+            batch.forEach(p -> p.result().completeExceptionally(t));
+            batch.clear();
+        } finally {
+            // stopped, or failed: new calls go straight to BookService, and whatever is still queued is
+            // written one by one so no caller is left waiting
+            if (committer == Thread.currentThread()) committer = null;
+            queue.drainTo(batch);
+            batch.forEach(this::commitAlone);
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        requests.add(batch.size());
+        batches.increment();
+        List<BookService.Created> results;
+        try {
+            results = bookService.createBooks(batch.stream().map(Pending::book).toList());
+        } catch (RuntimeException e) {
+            fallbacks.increment();
+            log.debug("Group commit of {} books failed, retrying one by one", batch.size(), e);
+            batch.forEach(this::commitAlone);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            BookService.Created created = results.get(i);
+            if (created.book() != null) {
+                batch.get(i).result().complete(created.book());
+            } else {
+                batch.get(i).result().completeExceptionally(new IllegalArgumentException(created.error()));
+            }
+        }
+    }
+
+    private void commitAlone(Pending pending) {
+        try {
+            pending.result().complete(bookService.createBook(pending.book()));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    public GroupCommitStatsDTO stats() {
+        long requestCount = requests.sum();
+        long batchCount = batches.sum();
+        double average = batchCount == 0 ? 0.0 : (double) requestCount / batchCount;
+        return new GroupCommitStatsDTO(enabled, requestCount, batchCount, fallbacks.sum(), average);
+    }
+}
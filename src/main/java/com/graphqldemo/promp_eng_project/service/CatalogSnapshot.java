@@ -0,0 +1,243 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.graphqldemo.promp_eng_project.config.ReadWriteRoutingDataSource;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.entity.Book;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Read model behind BookService's whole-catalog, by-id, by-title and substring reads: the current
+ * {@link BookSnapshot}, loaded from the database after startup and replaced, copy-on-write, after every
+ * committed write. While it is loading (or disabled) {@link #isReady} is false and reads use the database.
+ * <p>
+ * A transaction's changes are collected as its {@link BookChangedEvent}s are published and applied in one
+ * swap after it commits, so an import of many books costs one copy rather than one per book. A set-based
+ * discount does not say which books it changed; it takes the snapshot out of service until a reload has
+ * read the new prices.
+ */
+@Component
+public class CatalogSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshot.class);
+
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private volatile BookSnapshot current = BookSnapshot.EMPTY;
+    private volatile boolean ready;
+
+    /** Serializes swaps, so two commits cannot each publish a copy that lacks the other's change. */
+    private final ReentrantLock swapLock = new ReentrantLock();
+    /** Not {@code synchronized}: a reload blocks on JDBC and would pin a virtual thread's carrier. */
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+    /** Changes committed while a reload reads the database, replayed on what it read. Guarded by swapLock. */
+    private List<BookChangedEvent> duringReload;
+    /** Set-based updates so far; a reload that began before the latest one leaves the snapshot out of service. */
+    private long invalidations;
+
+    public CatalogSnapshot(BookRepository bookRepository,
+                           EntityManager entityManager,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${catalog.snapshot.enabled:false}") boolean enabled) {
+        this.bookRepository = bookRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) return;
+        Thread.ofVirtual().name("catalog-snapshot-warmup").start(this::reloadQuietly);
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /** Books in the current snapshot. */
+    public int size() {
+        return current.size();
+    }
+
+    BookSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Read the whole catalog into a new snapshot and switch readers over to it.
+     */
+    public void reload() {
+        if (!enabled) return;
+        reloadLock.lock();
+        try {
+            reloadQueued.set(false);
+            long seen;
+            swapLock.lock();
+            try {
+                duringReload = new ArrayList<>();
+                seen = invalidations;
+            } finally {
+                swapLock.unlock();
+            }
+
+            long start = System.nanoTime();
+            BookSnapshot fresh = null;
+            try {
+                fresh = load();
+            } finally {
+                swapLock.lock();
+                try {
+                    if (fresh != null) {
+                        current = fresh.with(duringReload);
+                        ready = invalidations == seen;
+                    }
+                    duringReload = null;
+                } finally {
+                    swapLock.unlock();
+                }
+            }
+            log.info("Catalog snapshot loaded: {} books, {} authors in {} ms", fresh.size(), fresh.authors(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Catalog snapshot load failed; reads stay on the database", e);
+        }
+    }
+
+    private BookSnapshot load() {
+        return readOnlyTransaction.execute(status -> {
+            BookSnapshot.Builder builder = new BookSnapshot.Builder(null, BookService.EXPORT_CHUNK_SIZE);
+            long count = 0;
+            try (Stream<Book> books = bookRepository.streamAllWithAuthor()) {
+                Iterator<Book> it = books.iterator();
+                while (it.hasNext()) {
+                    Book book = it.next();
+                    Author author = book.getAuthor();
+                    builder.add(book.getId(), book.getTitle(), book.getPrice(), book.getVersion(),
+                            author == null ? null : author.getId(),
+                            author == null ? null : author.getName(),
+                            author == null ? null : author.getBio());
+                    // the columns hold copies, so loaded entities can go
+                    if (++count % BookService.EXPORT_CHUNK_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            return builder.build();
+        });
+    }
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Changes changes = new Changes();
+            changes.add(event);
+            changes.afterCommit();
+            return;
+        }
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new Changes();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        changes.add(event);
+    }
+
+    private void apply(List<BookChangedEvent> books) {
+        swapLock.lock();
+        try {
+            if (duringReload != null) duringReload.addAll(books);
+            // not in service: the next reload reads these changes from the database
+            if (ready) current = current.with(books);
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    private void invalidate() {
+        swapLock.lock();
+        try {
+            ready = false;
+            invalidations++;
+        } finally {
+            swapLock.unlock();
+        }
+        // one queued reload covers every invalidation before it starts; it reads the primary, since a
+        // lagging replica would hand back the prices from before the update that invalidated the snapshot
+        if (reloadQueued.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("catalog-snapshot-reload")
+                    .start(() -> ReadWriteRoutingDataSource.onPrimary(this::reloadQuietly));
+        }
+    }
+
+    /** One transaction's changes, applied after it commits and before the caches evict. */
+    private final class Changes implements TransactionSynchronization {
+
+        private final List<BookChangedEvent> books = new ArrayList<>();
+        private boolean bulk;
+
+        void add(BookChangedEvent event) {
+            if (event.getType() == BookChangedEvent.Type.BULK_UPDATED) bulk = true;
+            else if (event.getBook() != null) books.add(event);
+        }
+
+        @Override
+        public int getOrder() {
+            return BookCache.LISTENER_ORDER - 1;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(CatalogSnapshot.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(CatalogSnapshot.this, this);
+        }
+
+        @Override
+        public void afterCommit() {
+            // a reload reads every row, including the ones in books
+            if (bulk) invalidate();
+            else if (!books.isEmpty()) apply(books);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CatalogSnapshot.this);
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.graphqldemo.promp_eng_project.config.ReadWriteRoutingDataSource;
+import com.graphqldemo.promp_eng_project.dto.AuthorStatsDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.CatalogStatsDTO;
+import com.graphqldemo.promp_eng_project.repository.AuthorPriceCountView;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.repository.BookVersionView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-author book counts and price aggregates kept in memory, so reading them costs O(authors) and no
+ * query. Built with one {@code GROUP BY author, price} query and then updated from {@link BookChangedEvent}s
+ * after commit: creates add a price, discounts swap the previous price for the new one, and set-based
+ * updates (whose rows are unknown) mark the aggregates stale and start a rebuild in the background; until
+ * it finishes, reads aggregate in the database.
+ * <p>
+ * Each author keeps its prices as a sorted multiset with an exact {@link BigDecimal} sum, so min and max
+ * stay exact when the cheapest or dearest book is discounted; updates lock only that author.
+ * <p>
+ * A rebuild reads in one repeatable-read transaction and settles every change that raced it against the
+ * row versions that transaction sees, the way {@link CatalogSnapshot} skips changes no newer than its rows:
+ * changes delivered while it read are replayed on the result unless the read already included them, and
+ * changes committed but not yet delivered when it swaps in are skipped on delivery if it did. A scheduled
+ * reconciliation still rereads the aggregates and rebuilds when they disagree, for writes that bypass
+ * {@link BookService}.
+ */
+@Component
+public class CatalogStats {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogStats.class);
+
+    private static final int AVG_SCALE = 2;
+
+    /** One author's prices as a sorted multiset (price to number of books at that price). */
+    private static final class AuthorAggregate {
+        private final long authorId;
+        private String name;
+        private final TreeMap<BigDecimal, Long> prices = new TreeMap<>();
+        private long books;
+        private BigDecimal total = BigDecimal.ZERO;
+
+        AuthorAggregate(long authorId, String name) {
+            this.authorId = authorId;
+            this.name = name;
+        }
+
+        synchronized void add(BigDecimal price, long count) {
+            prices.merge(price, count, Long::sum);
+            books += count;
+            total = total.add(price.multiply(BigDecimal.valueOf(count)));
+        }
+
+        synchronized void replace(BigDecimal previous, BigDecimal current) {
+            Long count = prices.get(previous);
+            if (count != null) {
+                if (count == 1) prices.remove(previous); else prices.put(previous, count - 1);
+                books--;
+                total = total.subtract(previous);
+            }
+            add(current, 1);
+        }
+
+        synchronized void rename(String name) {
+            if (name != null) this.name = name;
+        }
+
+        synchronized AuthorStatsDTO snapshot() {
+            if (books == 0) return new AuthorStatsDTO(authorId, name, 0, null, null, null, BigDecimal.ZERO);
+            BigDecimal avg = total.divide(BigDecimal.valueOf(books), AVG_SCALE, RoundingMode.HALF_UP);
+            return new AuthorStatsDTO(authorId, name, books, prices.firstKey(), avg, prices.lastKey(), total);
+        }
+    }
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate rebuildTransaction;
+    private final CatalogVersion catalogVersion;
+    private final boolean enabled;
+
+    /**
+     * Event updates share the read lock; a rebuild takes the write lock to start capturing changes and to
+     * swap in its result, so no update lands on a replaced map or slips between the two.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Not {@code synchronized}: a rebuild blocks on JDBC and would pin a virtual thread's carrier. */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Map<Long, AuthorAggregate> byAuthor = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    /** Exact changes delivered while a rebuild reads; null when none is reading. */
+    private volatile Queue<BookChangedEvent> duringRebuild;
+    /** Exact changes published by transactions that have not completed. */
+    private final Set<BookChangedEvent> inFlight = ConcurrentHashMap.newKeySet();
+    /** Changes in flight when a rebuild swapped in that its read already included; skipped on delivery. */
+    private final Set<BookChangedEvent> counted = ConcurrentHashMap.newKeySet();
+    /** Stale markings so far; a rebuild that began reading before the latest one does not clear it. */
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder drifts = new LongAdder();
+
+    public CatalogStats(BookRepository bookRepository,
+                        PlatformTransactionManager transactionManager,
+                        CatalogVersion catalogVersion,
+                        @Value("${catalog.stats.enabled:true}") boolean enabled) {
+        this.bookRepository = bookRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // rebuilds also run from after-commit listeners, where REQUIRED would join the finished transaction
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // the aggregates and the versions of the changes that raced them must come from one snapshot
+        this.rebuildTransaction = new TransactionTemplate(transactionManager, readOnlyTransaction);
+        this.rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.catalogVersion = catalogVersion;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) return;
+        Thread.ofVirtual().name("catalog-stats-warmup").start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Catalog stats build failed; will build on first read", e);
+            }
+        });
+    }
+
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long seen;
+            lock.writeLock().lock();
+            try {
+                duringRebuild = new ConcurrentLinkedQueue<>();
+                seen = invalidations.get();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                // after a write, or to correct drift: a lagging replica would rebuild what is being replaced
+                ReadWriteRoutingDataSource.onPrimary(() -> rebuildTransaction.executeWithoutResult(
+                        status -> swapIn(aggregate(bookRepository.countByAuthorAndPrice()), seen)));
+            } finally {
+                duringRebuild = null;
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Runs in the rebuild's transaction, so the versions it reads are the ones {@code fresh} was read at. Holds
+     * the write lock for one small query, so no change is delivered between settling the races and the swap.
+     */
+    private void swapIn(Map<Long, AuthorAggregate> fresh, long seen) {
+        lock.writeLock().lock();
+        try {
+            List<BookChangedEvent> delivered = List.copyOf(duringRebuild);
+            List<BookChangedEvent> undelivered = List.copyOf(inFlight);
+            Set<Long> ids = new HashSet<>();
+            delivered.forEach(event -> ids.add(event.getBook().getId()));
+            undelivered.forEach(event -> ids.add(event.getBook().getId()));
+            Map<Long, Long> versions = versionsOf(ids);
+
+            for (BookChangedEvent event : delivered) {
+                if (!readBy(versions, event)) apply(fresh, event);
+            }
+            for (BookChangedEvent event : undelivered) {
+                if (readBy(versions, event)) counted.add(event);
+            }
+            byAuthor = fresh;
+            duringRebuild = null;
+            ready = invalidations.get() == seen;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, Long> versionsOf(Set<Long> ids) {
+        Map<Long, Long> versions = new HashMap<>();
+        List<Long> list = new ArrayList<>(ids);
+        for (int from = 0; from < list.size(); from += BookService.IN_CLAUSE_CHUNK) {
+            List<Long> chunk = list.subList(from, Math.min(from + BookService.IN_CLAUSE_CHUNK, list.size()));
+            for (BookVersionView row : bookRepository.findVersionsByIdIn(chunk)) {
+                versions.put(row.getId(), row.getVersion());
+            }
+        }
+        return versions;
+    }
+
+    /** Whether a read that saw {@code versions} already includes the change. */
+    private static boolean readBy(Map<Long, Long> versions, BookChangedEvent event) {
+        Long seen = versions.get(event.getBook().getId());
+        if (seen == null) return false;
+        if (event.getType() == BookChangedEvent.Type.CREATED) return true;
+        return event.getVersion() != null && seen >= event.getVersion();
+    }
+
+    /**
+     * Mark the aggregates stale and rebuild them on a virtual thread, so the request that committed the change
+     * does not pay for the full-catalog aggregate. One queued rebuild covers every marking before it starts.
+     */
+    private void invalidate() {
+        ready = false;
+        invalidations.incrementAndGet();
+        scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuildQueued.compareAndSet(false, true)) return;
+        Thread.ofVirtual().name("catalog-stats-rebuild").start(() -> {
+            rebuildQueued.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Catalog stats rebuild failed; reads aggregate in the database until the next one", e);
+            }
+        });
+    }
+
+    private Map<Long, AuthorAggregate> load() {
+        return aggregate(readOnlyTransaction.execute(status -> bookRepository.countByAuthorAndPrice()));
+    }
+
+    private static Map<Long, AuthorAggregate> aggregate(List<AuthorPriceCountView> rows) {
+        Map<Long, AuthorAggregate> aggregates = new ConcurrentHashMap<>();
+        for (AuthorPriceCountView row : rows) {
+            aggregates.computeIfAbsent(row.getAuthorId(), id -> new AuthorAggregate(id, row.getAuthorName()))
+                    .add(row.getPrice(), row.getBooks());
+        }
+        return aggregates;
+    }
+
+    /**
+     * Note each exact change as it is published, so a rebuild that swaps in before the change is delivered
+     * can tell whether its read included it. A rolled-back transaction's changes are dropped again.
+     */
+    @EventListener
+    public void onBookPublished(BookChangedEvent event) {
+        if (!enabled || !isExact(event) || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+        lock.readLock().lock();
+        try {
+            inFlight.add(event);
+        } finally {
+            lock.readLock().unlock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) inFlight.remove(event);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(BookCache.LISTENER_ORDER + 2)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) return;
+        if (!isDelta(event)) {
+            // also while stale: a rebuild that is already reading may have missed it
+            invalidate();
+            return;
+        }
+        if (!isExact(event)) return;
+        lock.readLock().lock();
+        try {
+            inFlight.remove(event);
+            if (counted.remove(event)) return;
+            Queue<BookChangedEvent> capture = duringRebuild;
+            if (capture != null) capture.add(event);
+            if (ready) apply(byAuthor, event);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Whether the change can be applied as a delta; set-based ones, whose rows are unknown, cannot. */
+    private static boolean isDelta(BookChangedEvent event) {
+        return event.getType() == BookChangedEvent.Type.CREATED
+                || (event.getType() == BookChangedEvent.Type.UPDATED && event.getPreviousPrice() != null);
+    }
+
+    private static boolean isExact(BookChangedEvent event) {
+        BookDTO book = event.getBook();
+        return isDelta(event) && book != null && book.getId() != null && book.getAuthor() != null
+                && book.getAuthor().getId() != null && book.getPrice() != null;
+    }
+
+    private static void apply(Map<Long, AuthorAggregate> aggregates, BookChangedEvent event) {
+        BookDTO book = event.getBook();
+        AuthorAggregate aggregate = aggregates.computeIfAbsent(book.getAuthor().getId(),
+                id -> new AuthorAggregate(id, book.getAuthor().getName()));
+        if (event.getType() == BookChangedEvent.Type.CREATED) {
+            aggregate.rename(book.getAuthor().getName());
+            aggregate.add(book.getPrice(), 1);
+        } else {
+            aggregate.replace(event.getPreviousPrice(), book.getPrice());
+        }
+    }
+
+    /**
+     * Compare the aggregates with the database and rebuild them if they differ. Skipped when a write
+     * commits during the comparison, since either side may then legitimately include it or not.
+     * Returns whether drift was found.
+     */
+    @Scheduled(initialDelayString = "${catalog.stats.reconcile-interval:PT5M}",
+               fixedDelayString = "${catalog.stats.reconcile-interval:PT5M}")
+    public boolean reconcile() {
+        if (!enabled || !ready) return false;
+        long version = catalogVersion.current().version();
+        Map<Long, AuthorAggregate> fresh = ReadWriteRoutingDataSource.onPrimary(this::load);
+        if (catalogVersion.current().version() != version) return false;
+
+        Set<Long> authorIds = new HashSet<>(fresh.keySet());
+        authorIds.addAll(byAuthor.keySet());
+        int differing = 0;
+        for (Long authorId : authorIds) {
+            if (!sameAggregate(byAuthor.get(authorId), fresh.get(authorId))) differing++;
+        }
+        if (differing == 0) return false;
+
+        drifts.increment();
+        log.warn("Catalog stats drifted from the database for {} author(s); rebuilding", differing);
+        rebuild();
+        return true;
+    }
+
+    private static boolean sameAggregate(AuthorAggregate current, AuthorAggregate fresh) {
+        AuthorStatsDTO a = current == null ? null : current.snapshot();
+        AuthorStatsDTO b = fresh == null ? null : fresh.snapshot();
+        if (a == null || b == null) {
+            // an author whose books are all gone reads the same as one never seen
+            return (a == null || a.getBooks() == 0) && (b == null || b.getBooks() == 0);
+        }
+        return a.getBooks() == b.getBooks()
+                && a.getTotalPrice().compareTo(b.getTotalPrice()) == 0
+                && compare(a.getMinPrice(), b.getMinPrice())
+                && compare(a.getMaxPrice(), b.getMaxPrice());
+    }
+
+    private static boolean compare(BigDecimal a, BigDecimal b) {
+        return Objects.equals(a, b) || (a != null && b != null && a.compareTo(b) == 0);
+    }
+
+    /**
+     * Every author's aggregates, in author id order. While they are not built or stale, and always with
+     * {@code catalog.stats.enabled=false} (nothing keeps them current then), each call aggregates in the
+     * database instead.
+     */
+    public CatalogStatsDTO stats() {
+        Map<Long, AuthorAggregate> aggregates;
+        if (enabled && ready) {
+            aggregates = byAuthor;
+        } else {
+            if (enabled) scheduleRebuild();
+            aggregates = load();
+        }
+        List<AuthorStatsDTO> authors = aggregates.values().stream()
+                .map(AuthorAggregate::snapshot)
+                .filter(stats -> stats.getBooks() > 0)
+                .sorted(Comparator.comparing(AuthorStatsDTO::getAuthorId))
+                .toList();
+        long books = authors.stream().mapToLong(AuthorStatsDTO::getBooks).sum();
+        return new CatalogStatsDTO(books, authors, drifts.sum());
+    }
+}
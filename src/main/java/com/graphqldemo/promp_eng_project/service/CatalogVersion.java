@@ -0,0 +1,70 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Process-wide catalog version, bumped after every committed write, used as the validator for conditional
+ * GETs so an unchanged poll is answered without touching the database.
+ * <p>
+ * The bump runs after commit and after the caches have evicted (see the listener order): a request that
+ * reads the old stamp may already see the new data, which only costs the client one extra download, but a
+ * request can never see the new stamp with stale data. The version starts from the clock so stamps issued
+ * before a restart do not match afterwards.
+ * <p>
+ * The version is only bumped by this instance's writes. Behind a load balancer, a write through another
+ * instance would leave a client's tag matching here, so a stamp is only good for {@code max-age}: after that
+ * the version is bumped anyway and the next request gets the full response. That is the same staleness
+ * bound as the per-process caches ({@code catalog.cache.expire-after-write}), which this defaults to.
+ */
+@Component
+public class CatalogVersion {
+
+    public record Stamp(long version, long lastModified) {
+
+        /** Strong entity tag, quoted as HTTP requires. */
+        public String etag() {
+            return "\"" + version + "\"";
+        }
+
+        /**
+         * Strong entity tag of the representation sent with {@code contentCoding}: a strong validator must
+         * differ between codings of the same version, or a cache could answer a range or conditional request
+         * for one coding with bytes of the other.
+         */
+        public String etag(String contentCoding) {
+            return "\"" + version + "-" + contentCoding + "\"";
+        }
+    }
+
+    private final long maxAgeMillis;
+    private volatile Stamp current;
+
+    public CatalogVersion(@Value("${catalog.version.max-age:${catalog.cache.expire-after-write:PT10M}}") Duration maxAge) {
+        long now = System.currentTimeMillis();
+        this.maxAgeMillis = maxAge.toMillis();
+        this.current = new Stamp(now, now);
+    }
+
+    public Stamp current() {
+        Stamp stamp = current;
+        if (System.currentTimeMillis() - stamp.lastModified() < maxAgeMillis) return stamp;
+        return expire(stamp);
+    }
+
+    private synchronized Stamp expire(Stamp seen) {
+        // another request, or a write, may have replaced it already
+        if (current == seen) current = new Stamp(seen.version() + 1, System.currentTimeMillis());
+        return current;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(BookCache.LISTENER_ORDER + 10)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        current = new Stamp(current.version() + 1, System.currentTimeMillis());
+    }
+}
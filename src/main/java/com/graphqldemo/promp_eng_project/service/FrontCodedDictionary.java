@@ -0,0 +1,165 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable sorted title dictionary stored front-coded: titles are grouped in blocks of {@link #BLOCK_SIZE};
+ * the first title of a block is stored whole and every other one as (shared prefix length, suffix) against
+ * its predecessor, all as UTF-8 in a single byte array. Sorted titles share long prefixes, so this is a
+ * fraction of the size of one String per title. Lookups binary-search the block heads and decode forward.
+ */
+final class FrontCodedDictionary {
+
+    static final int BLOCK_SIZE = 16;
+
+    static final FrontCodedDictionary EMPTY = of(List.of());
+
+    private final int size;
+    private final byte[] data;
+    private final int[] blockOffsets;
+    /** Normalized key of each block's first entry, for the binary search. */
+    private final String[] blockHeads;
+    private final long[] ids;
+
+    private FrontCodedDictionary(int size, byte[] data, int[] blockOffsets, String[] blockHeads, long[] ids) {
+        this.size = size;
+        this.data = data;
+        this.blockOffsets = blockOffsets;
+        this.blockHeads = blockHeads;
+        this.ids = ids;
+    }
+
+    /**
+     * Encode {@code entries}, which must already be sorted by {@link TitleEntry#ORDER}.
+     */
+    static FrontCodedDictionary of(List<TitleEntry> entries) {
+        int n = entries.size();
+        int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int[] offsets = new int[blocks];
+        String[] heads = new String[blocks];
+        long[] ids = new long[n];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        byte[] previous = null;
+        for (int i = 0; i < n; i++) {
+            TitleEntry entry = entries.get(i);
+            ids[i] = entry.id();
+            byte[] current = entry.title().getBytes(StandardCharsets.UTF_8);
+            if (i % BLOCK_SIZE == 0) {
+                offsets[i / BLOCK_SIZE] = out.size();
+                heads[i / BLOCK_SIZE] = entry.key();
+                writeVarInt(out, current.length);
+                out.write(current, 0, current.length);
+            } else {
+                int shared = Arrays.mismatch(previous, current);
+                if (shared < 0) shared = current.length;
+                writeVarInt(out, shared);
+                writeVarInt(out, current.length - shared);
+                out.write(current, shared, current.length - shared);
+            }
+            previous = current;
+        }
+        return new FrontCodedDictionary(n, out.toByteArray(), offsets, heads, ids);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Up to {@code limit} entries whose key starts with {@code prefix} (already normalized), in order.
+     */
+    List<TitleEntry> withPrefix(String prefix, int limit) {
+        List<TitleEntry> result = new ArrayList<>(Math.min(limit, 16));
+        if (size == 0) return result;
+
+        // entries before the first head >= prefix can only sit in the block just before it
+        int block = Math.max(0, lowerBound(prefix) - 1);
+        Decoder decoder = new Decoder(block);
+        while (decoder.hasNext() && result.size() < limit) {
+            TitleEntry entry = decoder.next();
+            if (entry.key().compareTo(prefix) < 0) continue;
+            if (!entry.key().startsWith(prefix)) break;
+            result.add(entry);
+        }
+        return result;
+    }
+
+    List<TitleEntry> entries() {
+        List<TitleEntry> result = new ArrayList<>(size);
+        Decoder decoder = new Decoder(0);
+        while (decoder.hasNext()) result.add(decoder.next());
+        return result;
+    }
+
+    /** Approximate heap footprint of the encoded form, in bytes. */
+    long encodedBytes() {
+        return data.length + 4L * blockOffsets.length + 8L * ids.length
+                + Arrays.stream(blockHeads).mapToLong(h -> 40 + 2L * h.length()).sum();
+    }
+
+    private int lowerBound(String prefix) {
+        int lo = 0;
+        int hi = blockHeads.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (blockHeads[mid].compareTo(prefix) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private final class Decoder {
+        private int index;
+        private int pos;
+        private byte[] buffer = new byte[64];
+        private int length;
+
+        Decoder(int block) {
+            this.index = block * BLOCK_SIZE;
+            this.pos = block < blockOffsets.length ? blockOffsets[block] : 0;
+        }
+
+        boolean hasNext() {
+            return index < size;
+        }
+
+        TitleEntry next() {
+            int shared = 0;
+            if (index % BLOCK_SIZE != 0) {
+                shared = readVarInt();
+            }
+            int suffix = readVarInt();
+            length = shared + suffix;
+            if (buffer.length < length) buffer = Arrays.copyOf(buffer, Math.max(length, buffer.length * 2));
+            System.arraycopy(data, pos, buffer, shared, suffix);
+            pos += suffix;
+            String title = new String(buffer, 0, length, StandardCharsets.UTF_8);
+            return new TitleEntry(TitleSearchIndex.normalize(title), ids[index++], title);
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
@@ -0,0 +1,81 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.graphqldemo.promp_eng_project.dto.ConflictStatsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a read-modify-write in a fresh transaction and, when it loses an optimistic version check, runs it
+ * again from the read, up to a bounded number of attempts with a short jittered backoff. Each attempt
+ * must re-read what it modifies; nothing from a failed attempt is reused, and events published in it are
+ * dropped with its rollback.
+ * <p>
+ * Callers must not already be in a transaction, otherwise a conflict would mark the outer one
+ * rollback-only; attempts use REQUIRES_NEW to make that explicit.
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final int MAX_DOUBLINGS = 6;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffNanos;
+
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${catalog.retry.max-attempts:20}") int maxAttempts,
+                           @Value("${catalog.retry.backoff:PT0.002S}") Duration backoff) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("catalog.retry.max-attempts must be at least 1");
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+        this.backoffNanos = backoff.toNanos();
+    }
+
+    public <T> T execute(TransactionCallback<T> work) {
+        operations.increment();
+        for (int attempt = 1; ; attempt++) {
+            attempts.increment();
+            try {
+                return transactionTemplate.execute(work);
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    // Full jitter over an exponentially growing window, so writers that collided once spread out instead
+    // of colliding again in lockstep; the window stops growing after a few doublings.
+    private void backOff(int attempt) {
+        if (backoffNanos <= 0) return;
+        long window = backoffNanos << Math.min(attempt - 1, MAX_DOUBLINGS);
+        LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(window) + 1);
+    }
+
+    public ConflictStatsDTO stats() {
+        long attemptCount = attempts.sum();
+        long conflictCount = conflicts.sum();
+        double rate = attemptCount == 0 ? 0.0 : (double) conflictCount / attemptCount;
+        return new ConflictStatsDTO(operations.sum(), attemptCount, conflictCount, exhausted.sum(), rate);
+    }
+}
@@ -0,0 +1,45 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import java.util.Arrays;
+
+/**
+ * Sorted list of book ids for one trigram. Readers take the current {@link Snapshot} without locking;
+ * writers are serialized and either append past the published size (the usual case, since ids come from
+ * a sequence) or publish a fresh copy when an id arrives out of order.
+ */
+final class PostingList {
+
+    record Snapshot(long[] ids, int size) {
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(new long[4], 0);
+
+    Snapshot snapshot() {
+        return snapshot;
+    }
+
+    synchronized void add(long id) {
+        Snapshot current = snapshot;
+        long[] ids = current.ids();
+        int size = current.size();
+
+        if (size > 0 && ids[size - 1] >= id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) return;
+            int insertAt = -pos - 1;
+            long[] copy = new long[Math.max(ids.length, size + 1)];
+            System.arraycopy(ids, 0, copy, 0, insertAt);
+            copy[insertAt] = id;
+            System.arraycopy(ids, insertAt, copy, insertAt + 1, size - insertAt);
+            snapshot = new Snapshot(copy, size + 1);
+            return;
+        }
+
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        // slots at or beyond `size` are invisible to existing snapshots, so writing in place is safe
+        ids[size] = id;
+        snapshot = new Snapshot(ids, size + 1);
+    }
+}
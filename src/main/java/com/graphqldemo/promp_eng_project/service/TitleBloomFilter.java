@@ -0,0 +1,151 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.repository.BookTitleView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over existing book titles (exact, case-sensitive, as the unique constraint compares them).
+ * {@link #mightContain} false means the title is certainly not taken, so the duplicate probe can be
+ * skipped; true means it may be and the database has to be asked. Titles are never removed.
+ * <p>
+ * Until the first build from the database finishes, every title "might" be present. A miss here is
+ * only an optimisation either way: the unique constraint on {@code books.title} remains the guarantee.
+ */
+@Component
+public class TitleBloomFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(TitleBloomFilter.class);
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long expectedTitles;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder inserted = new LongAdder();
+    private volatile boolean ready;
+
+    public TitleBloomFilter(BookRepository bookRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${catalog.title-filter.enabled:true}") boolean enabled,
+                            @Value("${catalog.title-filter.expected-titles:1000000}") long expectedTitles,
+                            @Value("${catalog.title-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedTitles < 1) throw new IllegalArgumentException("catalog.title-filter.expected-titles must be positive");
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("catalog.title-filter.false-positive-rate must be between 0 and 1");
+        }
+        this.bookRepository = bookRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedTitles = expectedTitles;
+
+        // standard sizing: m = -n ln p / (ln 2)^2 bits and k = m/n ln 2 hash functions
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-expectedTitles * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bitCount = Math.max(64, (m + 63) / 64 * 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedTitles * ln2));
+        this.bits = new AtomicLongArray(enabled ? (int) (bitCount / 64) : 1);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) return;
+        Thread.ofVirtual().name("title-filter-warmup").start(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                log.warn("Title filter build failed; duplicate checks stay on the database", e);
+            }
+        });
+    }
+
+    /**
+     * Add every title in the database and start answering. Bits are only ever set, so this can run
+     * while titles are being added from events.
+     */
+    public void load() {
+        if (!enabled) return;
+        long start = System.nanoTime();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<BookTitleView> rows = bookRepository.streamAllTitles()) {
+                rows.forEach(row -> put(row.getTitle()));
+            }
+        });
+        ready = true;
+        log.info("Title filter built: {} titles, {} KB, {} hashes in {} ms", inserted.sum(),
+                bitCount / 8 / 1024, hashCount, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean mightContain(String title) {
+        if (!enabled || !ready || title == null) return true;
+        long hash = hash64(title);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + (long) i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    void put(String title) {
+        if (!enabled || title == null) return;
+        long hash = hash64(title);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + (long) i * h2);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((bits.get(word) & mask) == 0) {
+                bits.accumulateAndGet(word, mask, (a, b) -> a | b);
+            }
+        }
+        inserted.increment();
+        if (inserted.sum() == expectedTitles + 1) {
+            log.warn("Title filter holds more than {} titles; its false-positive rate is now above target", expectedTitles);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.CREATED && event.getBook() != null) {
+            put(event.getBook().getTitle());
+        }
+    }
+
+    private long index(long combined) {
+        return Math.floorMod(combined, bitCount);
+    }
+
+    /** 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 fmix64 avalanche. */
+    static long hash64(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
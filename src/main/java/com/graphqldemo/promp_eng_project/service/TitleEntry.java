@@ -0,0 +1,16 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import java.util.Comparator;
+
+/**
+ * A title in the suggestion dictionary: {@code key} is the normalized (lower-cased) title used for ordering
+ * and prefix matching, {@code title} is what is shown to the user.
+ */
+record TitleEntry(String key, long id, String title) {
+
+    static final Comparator<TitleEntry> ORDER = Comparator.comparing(TitleEntry::key).thenComparingLong(TitleEntry::id);
+
+    static TitleEntry of(long id, String title) {
+        return new TitleEntry(TitleSearchIndex.normalize(title), id, title);
+    }
+}
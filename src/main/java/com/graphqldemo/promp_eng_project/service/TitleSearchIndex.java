@@ -0,0 +1,193 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.repository.BookTitleView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram inverted index over lower-cased book titles, answering case-insensitive substring
+ * search without the {@code LIKE '%x%'} table scan. A query is split into its trigrams, their posting lists
+ * are intersected starting from the shortest, and each surviving candidate is verified against its title.
+ * <p>
+ * The index is built from the database after startup and then kept current from {@link BookChangedEvent}s.
+ * Until the first build finishes, and for queries shorter than three characters, {@link #canAnswer} is false
+ * and callers should use the repository instead.
+ */
+@Component
+public class TitleSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TitleSearchIndex.class);
+
+    static final int GRAM = 3;
+
+    private static final class Index {
+        final Map<Long, String> titles = new ConcurrentHashMap<>();
+        final Map<Long, PostingList> postings = new ConcurrentHashMap<>();
+
+        void add(long id, String normalizedTitle) {
+            titles.put(id, normalizedTitle);
+            for (long gram : trigrams(normalizedTitle)) {
+                postings.computeIfAbsent(gram, k -> new PostingList()).add(id);
+            }
+        }
+    }
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private volatile Index current = new Index();
+    /** Index under construction; live writes go to it as well so none are lost while it is built. */
+    private volatile Index building;
+    private volatile boolean ready;
+    /** Not {@code synchronized}: a rebuild blocks on JDBC and would pin a virtual thread's carrier. */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public TitleSearchIndex(BookRepository bookRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${catalog.search.index.enabled:true}") boolean enabled) {
+        this.bookRepository = bookRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) return;
+        Thread.ofVirtual().name("title-index-warmup").start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Title index build failed; substring search stays on the database", e);
+            }
+        });
+    }
+
+    /**
+     * Rebuild the index from the database and switch readers over to it.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            Index fresh = new Index();
+            building = fresh;
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<BookTitleView> rows = bookRepository.streamAllTitles()) {
+                        rows.forEach(row -> fresh.add(row.getId(), normalize(row.getTitle())));
+                    }
+                });
+                current = fresh;
+                ready = true;
+            } finally {
+                building = null;
+            }
+            log.info("Title index built: {} titles, {} trigrams in {} ms", fresh.titles.size(), fresh.postings.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled || event.getBook() == null) return;
+        add(event.getBook().getId(), event.getBook().getTitle());
+    }
+
+    void add(Long id, String title) {
+        if (id == null || title == null) return;
+        String normalized = normalize(title);
+        current.add(id, normalized);
+        Index pending = building;
+        if (pending != null) pending.add(id, normalized);
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Whether {@link #search} can answer {@code query}: the index is built and the query has at least one trigram.
+     */
+    public boolean canAnswer(String query) {
+        return isReady() && query != null && normalize(query).length() >= GRAM;
+    }
+
+    /**
+     * Ids, ascending, of books whose title contains {@code query} ignoring case, up to {@code limit} of them.
+     */
+    public List<Long> search(String query, int limit) {
+        Index index = current;
+        String needle = normalize(query);
+
+        List<PostingList.Snapshot> lists = new ArrayList<>();
+        for (long gram : trigrams(needle)) {
+            PostingList list = index.postings.get(gram);
+            if (list == null) return List.of();
+            lists.add(list.snapshot());
+        }
+        lists.sort(Comparator.comparingInt(PostingList.Snapshot::size));
+
+        PostingList.Snapshot shortest = lists.get(0);
+        int[] cursors = new int[lists.size()];
+        List<Long> result = new ArrayList<>();
+        for (int i = 0; i < shortest.size() && result.size() < limit; i++) {
+            long id = shortest.ids()[i];
+            if (!inAll(id, lists, cursors)) continue;
+            // trigrams can match out of order ("abcxbcd" has every gram of "abcd"), so verify
+            String title = index.titles.get(id);
+            if (title != null && title.contains(needle)) result.add(id);
+        }
+        return result;
+    }
+
+    /** Candidates arrive in ascending order, so each list is searched only from where the last probe ended. */
+    private static boolean inAll(long id, List<PostingList.Snapshot> lists, int[] cursors) {
+        for (int l = 1; l < lists.size(); l++) {
+            PostingList.Snapshot list = lists.get(l);
+            int pos = Arrays.binarySearch(list.ids(), cursors[l], list.size(), id);
+            if (pos < 0) {
+                cursors[l] = -pos - 1;
+                return false;
+            }
+            cursors[l] = pos + 1;
+        }
+        return true;
+    }
+
+    static String normalize(String title) {
+        return title.toLowerCase(Locale.ROOT);
+    }
+
+    /** Distinct trigrams of {@code s}, each packed as three 16-bit chars into one long. */
+    static Set<Long> trigrams(String s) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= s.length(); i++) {
+            grams.add(((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2));
+        }
+        return grams;
+    }
+}
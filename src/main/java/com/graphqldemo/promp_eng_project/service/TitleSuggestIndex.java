@@ -0,0 +1,172 @@
+package com.graphqldemo.promp_eng_project.service;
+
+import com.graphqldemo.promp_eng_project.dto.BookSuggestionDTO;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.repository.BookTitleView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Prefix (type-ahead) lookup over book titles. Titles live in an immutable {@link FrontCodedDictionary};
+ * titles created since it was built go to a small concurrent sorted delta, and lookups merge the two.
+ * Once the delta reaches {@link #COMPACT_THRESHOLD} entries it is folded into a new dictionary in the
+ * background, in memory, without going back to the database.
+ */
+@Component
+public class TitleSuggestIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TitleSuggestIndex.class);
+
+    static final int COMPACT_THRESHOLD = 4096;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private volatile FrontCodedDictionary base = FrontCodedDictionary.EMPTY;
+    private final ConcurrentSkipListSet<TitleEntry> delta = new ConcurrentSkipListSet<>(TitleEntry.ORDER);
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private volatile boolean ready;
+    /** Serialises rebuild and compaction; not {@code synchronized} because a rebuild blocks on JDBC. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public TitleSuggestIndex(BookRepository bookRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${catalog.suggest.enabled:true}") boolean enabled) {
+        this.bookRepository = bookRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) return;
+        Thread.ofVirtual().name("title-suggest-warmup").start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Title suggestion dictionary build failed; suggestions stay on the database", e);
+            }
+        });
+    }
+
+    /**
+     * Reload every title from the database into a fresh dictionary. Delta entries present when the rebuild
+     * started are dropped afterwards (they are either in the new dictionary or gone); later ones are kept.
+     */
+    public void rebuild() {
+        lock.lock();
+        try {
+            long start = System.nanoTime();
+            List<TitleEntry> replaced = new ArrayList<>(delta);
+            List<TitleEntry> entries = readOnlyTransaction.execute(status -> {
+                try (Stream<BookTitleView> rows = bookRepository.streamAllTitles()) {
+                    return rows.map(row -> TitleEntry.of(row.getId(), row.getTitle()))
+                            .sorted(TitleEntry.ORDER)
+                            .collect(Collectors.toList());
+                }
+            });
+            FrontCodedDictionary dictionary = FrontCodedDictionary.of(entries);
+            base = dictionary;
+            replaced.forEach(delta::remove);
+            ready = true;
+            log.info("Title suggestion dictionary built: {} titles, ~{} KB in {} ms", dictionary.size(),
+                    dictionary.encodedBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled || event.getBook() == null || event.getType() != BookChangedEvent.Type.CREATED) return;
+        delta.add(TitleEntry.of(event.getBook().getId(), event.getBook().getTitle()));
+        if (delta.size() >= COMPACT_THRESHOLD && compacting.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("title-suggest-compact").start(() -> {
+                try {
+                    compact();
+                } finally {
+                    compacting.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Fold the current delta into a new dictionary.
+     */
+    void compact() {
+        lock.lock();
+        try {
+            List<TitleEntry> folded = new ArrayList<>(delta);
+            base = FrontCodedDictionary.of(merge(base.entries(), folded, Integer.MAX_VALUE));
+            folded.forEach(delta::remove);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Up to {@code limit} books whose title starts with {@code prefix} ignoring case, ordered by title.
+     */
+    public List<BookSuggestionDTO> suggest(String prefix, int limit) {
+        String key = TitleSearchIndex.normalize(prefix);
+        // delta first: compaction and rebuild publish the new base before removing what it folded in, so
+        // an entry gone from the delta by now is in the base read below (the merge drops one read twice)
+        NavigableSet<TitleEntry> range = delta.tailSet(new TitleEntry(key, Long.MIN_VALUE, key), true);
+        List<TitleEntry> fromDelta = new ArrayList<>();
+        for (TitleEntry entry : range) {
+            if (fromDelta.size() >= limit || !entry.key().startsWith(key)) break;
+            fromDelta.add(entry);
+        }
+
+        List<TitleEntry> fromBase = base.withPrefix(key, limit);
+
+        return merge(fromBase, fromDelta, limit).stream()
+                .map(e -> new BookSuggestionDTO(e.id(), e.title()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Merge two sorted lists, keeping one copy of entries present in both (possible while a compaction or
+     * rebuild is swapping the dictionary).
+     */
+    private static List<TitleEntry> merge(List<TitleEntry> a, List<TitleEntry> b, int limit) {
+        List<TitleEntry> out = new ArrayList<>(Math.min(limit, a.size() + b.size()));
+        int i = 0;
+        int j = 0;
+        while (out.size() < limit && (i < a.size() || j < b.size())) {
+            int cmp = i == a.size() ? 1 : j == b.size() ? -1 : TitleEntry.ORDER.compare(a.get(i), b.get(j));
+            if (cmp < 0) {
+                out.add(a.get(i++));
+            } else if (cmp > 0) {
+                out.add(b.get(j++));
+            } else {
+                out.add(a.get(i++));
+                j++;
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,6 @@
+-- Adds the optimistic-lock column Book.version maps to (bumped on every update, checked by the single-book
+-- discount's retry and used as the row version of catalog changes). Run once on an existing PostgreSQL
+-- catalog before starting a version that maps it; a fresh schema generated by Hibernate already has it.
+-- Existing rows start at 0, the value Hibernate seeds new rows with.
+
+ALTER TABLE books ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,24 @@
+-- Creates the unique title constraint and the indexes Book and Author declare. The annotations only take
+-- effect on a schema Hibernate generates; production runs without ddl-auto, so an existing PostgreSQL
+-- catalog needs this once. Without uk_books_title two concurrent creates of the same title can both
+-- commit: the Bloom filter and the existence check in BookService are fast paths, not the guarantee.
+
+-- Titles already duplicated would make the constraint fail. The oldest book keeps its title; every later
+-- copy gets its id appended, so no book is lost and the copies can be reviewed (or deleted) afterwards.
+BEGIN;
+
+UPDATE books b
+SET title = b.title || ' (' || b.id || ')'
+WHERE EXISTS (SELECT 1 FROM books older WHERE older.title = b.title AND older.id < b.id);
+
+ALTER TABLE books ADD CONSTRAINT uk_books_title UNIQUE (title);
+
+COMMIT;
+
+-- Built without blocking writes, which also means outside a transaction; each is a no-op when it exists.
+-- Keyset pages by price and by title, and per-author book lists
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_books_price_id ON books (price, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_books_title_id ON books (title, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_books_author_id ON books (author_id, id);
+-- Authors resolved by name when books are imported
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_authors_name ON authors (name);
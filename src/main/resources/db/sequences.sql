@@ -0,0 +1,19 @@
+-- Moves an existing PostgreSQL catalog from IDENTITY ids to the pooled sequences Book and Author map to
+-- (books_seq, authors_seq, allocation size 50). Run once, with the application stopped, before starting
+-- a version that uses them; a fresh schema generated by Hibernate already has them.
+--
+-- Hibernate's pooled optimizer reads a sequence value v as the top of the block [v - 49, v], so each
+-- sequence is set to return max(id) + 50 next: the first block then starts right after the existing ids.
+
+BEGIN;
+
+ALTER TABLE books ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE authors ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS books_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS authors_seq INCREMENT BY 50;
+
+SELECT setval('books_seq', COALESCE((SELECT MAX(id) FROM books), 0) + 50, false);
+SELECT setval('authors_seq', COALESCE((SELECT MAX(id) FROM authors), 0) + 50, false);
+
+COMMIT;
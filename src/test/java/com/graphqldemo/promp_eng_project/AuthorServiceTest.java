@@ -0,0 +1,113 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.AuthorPageDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.entity.Book;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.AuthorService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AuthorServiceTest {
+
+    private static final int AUTHORS = 12;
+    private static final int BOOKS_PER_AUTHOR = 3;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter statements;
+    private Long firstAuthorId;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        firstAuthorId = null;
+        for (int a = 0; a < AUTHORS; a++) {
+            Author author = new Author();
+            author.setName("Author " + a);
+            author = authorRepository.save(author);
+            if (firstAuthorId == null) firstAuthorId = author.getId();
+            for (int b = 0; b < BOOKS_PER_AUTHOR; b++) {
+                Book book = new Book();
+                book.setTitle("Volume " + a + "-" + b);
+                book.setAuthor(author);
+                book.setPrice(new BigDecimal("10.00"));
+                bookRepository.save(book);
+            }
+        }
+        statements = new StatementCounter(entityManagerFactory);
+    }
+
+    @Test
+    public void pageWithBooks_batchFetchesAllCollections() {
+        AuthorPageDTO page = statements.assertStatements(2, () -> authorService.getAuthorsPage(null, 10, true));
+
+        assertEquals(10, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+        for (AuthorDTO author : page.getItems()) {
+            assertEquals(BOOKS_PER_AUTHOR, author.getBooks().size());
+            assertTrue(author.getBooks().get(0).getTitle().startsWith("Volume "));
+        }
+    }
+
+    @Test
+    public void pagesWithoutBooks_runOneStatementAndCoverEveryAuthor() {
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            String after = cursor;
+            AuthorPageDTO page = statements.assertStatements(1, () -> authorService.getAuthorsPage(after, 5, false));
+            page.getItems().forEach(author -> {
+                assertNull(author.getBooks());
+                names.add(author.getName());
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(AUTHORS, names.size());
+        assertEquals("Author 0", names.get(0));
+        assertEquals("Author 11", names.get(AUTHORS - 1));
+    }
+
+    @Test
+    public void singleAuthor_includesBooksOnRequest() {
+        AuthorDTO withBooks = statements.assertStatements(2, () -> authorService.getAuthorById(firstAuthorId, true).orElseThrow());
+        assertEquals(List.of("Volume 0-0", "Volume 0-1", "Volume 0-2"),
+                withBooks.getBooks().stream().map(book -> book.getTitle()).toList());
+
+        assertNull(authorService.getAuthorById(firstAuthorId, false).orElseThrow().getBooks());
+        assertTrue(authorService.getAuthorById(-1L, true).isEmpty());
+    }
+
+    @Test
+    public void badPagingArguments_areRejected() {
+        assertThrows(IllegalArgumentException.class, () -> authorService.getAuthorsPage("not a cursor!", 5, false));
+        assertThrows(IllegalArgumentException.class, () -> authorService.getAuthorsPage(null, 0, false));
+        assertThrows(IllegalArgumentException.class, () -> authorService.getAuthorsPage(null, AuthorService.MAX_PAGE_SIZE + 1, false));
+    }
+}
@@ -0,0 +1,73 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.CacheStatsDTO;
+import com.graphqldemo.promp_eng_project.service.BookCache;
+import com.graphqldemo.promp_eng_project.service.BookChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookCacheTest {
+
+    private BookCache cache;
+    private AtomicInteger loads;
+    private BookDTO book;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new BookCache(true, 100, Duration.ofMinutes(10), Duration.ofSeconds(5));
+        loads = new AtomicInteger();
+        book = new BookDTO(1L, "Refactoring", null, new BigDecimal("49.99"));
+    }
+
+    private Optional<BookDTO> load(Long id) {
+        loads.incrementAndGet();
+        return id == 1L ? Optional.of(book) : Optional.empty();
+    }
+
+    @Test
+    public void repeatedReads_hitTheCache() {
+        assertSame(book, cache.getById(1L, this::load).orElseThrow());
+        assertSame(book, cache.getById(1L, this::load).orElseThrow());
+        assertEquals(1, loads.get());
+
+        CacheStatsDTO stats = cache.stats().get(0);
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    public void missingBooks_areNotCached() {
+        assertTrue(cache.getById(2L, this::load).isEmpty());
+        assertTrue(cache.getById(2L, this::load).isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void writes_evictByIdAndTitle() {
+        cache.getById(1L, this::load);
+        cache.getByTitle("Refactoring", title -> Optional.of(book));
+
+        cache.onBookChanged(BookChangedEvent.updated(book));
+
+        cache.getById(1L, this::load);
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.stats().get(1).getSize());
+    }
+
+    @Test
+    public void bulkUpdates_clearEverything() {
+        cache.getById(1L, this::load);
+        cache.onBookChanged(BookChangedEvent.bulkUpdated());
+        cache.getById(1L, this::load);
+        assertEquals(2, loads.get());
+    }
+}
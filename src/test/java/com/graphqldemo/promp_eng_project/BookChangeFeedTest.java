@@ -0,0 +1,190 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.BookChangeDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.BulkDiscountRequestDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.BookChangeFeed;
+import com.graphqldemo.promp_eng_project.service.BookChangedEvent;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookChangeFeedTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    @Autowired
+    private BookChangeFeed bookChangeFeed;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private static BookChangedEvent created(long id) {
+        return BookChangedEvent.created(new BookDTO(id, "Book " + id, null, BigDecimal.TEN));
+    }
+
+    @Test
+    public void committedWrites_reachSubscribers() throws Exception {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        Author author = new Author();
+        author.setName("Michael Feathers");
+        author = authorRepository.save(author);
+
+        BookChangeFeed.Subscription subscription = bookChangeFeed.subscribe(null);
+        try {
+            BookDTO book = bookService.createBook(new BookDTO(null, "Working Effectively with Legacy Code",
+                    new AuthorDTO(author.getId(), null, null, null), new BigDecimal("50.00")));
+            bookService.applyDiscount(book.getId(), BigDecimal.TEN);
+
+            BookChangeDTO create = subscription.poll(WAIT);
+            assertEquals("CREATED", create.getType());
+            assertEquals(book.getId(), create.getBook().getId());
+
+            BookChangeDTO discount = subscription.poll(WAIT);
+            assertEquals("UPDATED", discount.getType());
+            assertEquals(0, new BigDecimal("45.00").compareTo(discount.getBook().getPrice()));
+            assertEquals(0, new BigDecimal("50.00").compareTo(discount.getPreviousPrice()));
+            assertEquals(create.getSequence() + 1, discount.getSequence());
+        } finally {
+            subscription.close();
+        }
+        assertEquals(0, bookChangeFeed.subscriberCount());
+    }
+
+    @Test
+    public void bulkDiscount_namesTheBooksItChanged() throws Exception {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        Author author = new Author();
+        author.setName("Steve McConnell");
+        author = authorRepository.save(author);
+        AuthorDTO byId = new AuthorDTO(author.getId(), null, null, null);
+        BookDTO first = bookService.createBook(new BookDTO(null, "Code Complete", byId, new BigDecimal("40.00")));
+        BookDTO second = bookService.createBook(new BookDTO(null, "Software Estimation", byId, new BigDecimal("30.00")));
+
+        BookChangeFeed.Subscription subscription = bookChangeFeed.subscribe(null);
+        try {
+            BulkDiscountRequestDTO request = new BulkDiscountRequestDTO();
+            request.setDiscountPercentage(BigDecimal.TEN);
+            request.setAuthorId(author.getId());
+            bookService.applyBulkDiscount(request);
+
+            BookChangeDTO change = subscription.poll(WAIT);
+            assertEquals("BULK_UPDATED", change.getType());
+            assertEquals(List.of(first.getId(), second.getId()), change.getBookIds());
+        } finally {
+            subscription.close();
+        }
+    }
+
+    @Test
+    public void resume_replaysOnlyWhatWasMissed() throws Exception {
+        BookChangeFeed feed = new BookChangeFeed(8, 8);
+        BookChangeFeed.Subscription first = feed.subscribe(null);
+        feed.onBookChanged(created(1));
+        String seen = BookChangeFeed.eventId(first.poll(WAIT));
+        first.close();
+
+        feed.onBookChanged(created(2));
+        feed.onBookChanged(created(3));
+
+        BookChangeFeed.Subscription resumed = feed.subscribe(seen);
+        assertEquals(2L, resumed.poll(WAIT).getBook().getId());
+        assertEquals(3L, resumed.poll(WAIT).getBook().getId());
+        assertNull(resumed.poll(Duration.ofMillis(10)));
+    }
+
+    @Test
+    public void resumePointOutsideTheBuffer_getsReset() throws Exception {
+        BookChangeFeed feed = new BookChangeFeed(4, 8);
+        BookChangeFeed.Subscription first = feed.subscribe(null);
+        feed.onBookChanged(created(1));
+        BookChangeDTO last = first.poll(WAIT);
+        for (long id = 2; id <= 10; id++) {
+            feed.onBookChanged(created(id));
+        }
+
+        BookChangeDTO reset = feed.subscribe(BookChangeFeed.eventId(last)).poll(WAIT);
+        assertEquals(BookChangeDTO.RESET, reset.getType());
+        assertEquals(last.getSequence() + 9, reset.getSequence());
+
+        // ids not issued by this feed at all
+        assertEquals(BookChangeDTO.RESET, feed.subscribe("garbage").poll(WAIT).getType());
+        assertEquals(BookChangeDTO.RESET, feed.subscribe(last.getEpoch() + ":" + Long.MAX_VALUE).poll(WAIT).getType());
+    }
+
+    @Test
+    public void idFromAnEarlierStart_getsResetEvenWhenItsSequenceIsBuffered() throws Exception {
+        BookChangeFeed before = new BookChangeFeed(8, 8);
+        BookChangeFeed.Subscription old = before.subscribe(null);
+        before.onBookChanged(created(1));
+        String oldId = BookChangeFeed.eventId(old.poll(WAIT));
+
+        // restarted: the same sequences are handed out again
+        BookChangeFeed after = new BookChangeFeed(8, 8);
+        after.onBookChanged(created(2));
+        after.onBookChanged(created(3));
+
+        BookChangeDTO reset = after.subscribe(oldId).poll(WAIT);
+        assertEquals(BookChangeDTO.RESET, reset.getType());
+        assertNotEquals(oldId.substring(0, oldId.indexOf(':')), reset.getEpoch());
+    }
+
+    @Test
+    public void laggingSubscriber_isDroppedWithoutHoldingUpOthers() throws Exception {
+        BookChangeFeed feed = new BookChangeFeed(16, 2);
+        BookChangeFeed.Subscription slow = feed.subscribe(null);
+        BookChangeFeed.Subscription fast = feed.subscribe(null);
+
+        for (long id = 1; id <= 3; id++) {
+            feed.onBookChanged(created(id));
+            assertEquals(id, fast.poll(WAIT).getBook().getId());
+        }
+
+        assertTrue(slow.isClosed());
+        assertNull(slow.poll(WAIT));
+        assertFalse(fast.isClosed());
+        assertEquals(1, feed.subscriberCount());
+        assertEquals(1, feed.laggingCount());
+    }
+
+    @Test
+    public void replayLongerThanTheSubscriberBuffer_isDelivered() throws Exception {
+        BookChangeFeed feed = new BookChangeFeed(16, 2);
+        BookChangeFeed.Subscription first = feed.subscribe(null);
+        feed.onBookChanged(created(1));
+        String seen = BookChangeFeed.eventId(first.poll(WAIT));
+        first.close();
+        for (long id = 2; id <= 9; id++) feed.onBookChanged(created(id));
+
+        BookChangeFeed.Subscription resumed = feed.subscribe(seen);
+        // one more change on top of the eight replayed still fits
+        feed.onBookChanged(created(10));
+        for (long id = 2; id <= 10; id++) {
+            assertEquals(id, resumed.poll(WAIT).getBook().getId());
+        }
+        assertFalse(resumed.isClosed());
+        assertEquals(0, feed.laggingCount());
+    }
+}
@@ -0,0 +1,97 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.ConflictStatsDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.entity.Book;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int DISCOUNTS_PER_THREAD = 10;
+    private static final BigDecimal ONE_PERCENT = BigDecimal.ONE;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private Book book;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        Author author = new Author();
+        author.setName("Brian Goetz");
+        author = authorRepository.save(author);
+
+        book = new Book();
+        book.setTitle("Java Concurrency in Practice");
+        book.setAuthor(author);
+        book.setPrice(new BigDecimal("1000.00"));
+        book = bookRepository.save(book);
+    }
+
+    @Test
+    public void concurrentDiscounts_loseNoUpdates() throws Exception {
+        ConflictStatsDTO before = bookService.getConflictStats();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> workers = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < DISCOUNTS_PER_THREAD; i++) {
+                        bookService.applyDiscount(book.getId(), ONE_PERCENT);
+                    }
+                    return DISCOUNTS_PER_THREAD;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> worker : workers) {
+                worker.get();
+            }
+        }
+
+        // every discount applied exactly once, in whatever order: same result as applying them serially
+        BigDecimal expected = new BigDecimal("1000.00");
+        for (int i = 0; i < THREADS * DISCOUNTS_PER_THREAD; i++) {
+            expected = expected.multiply(BigDecimal.valueOf(99))
+                    .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        }
+        Book stored = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(0, expected.compareTo(stored.getPrice()));
+        assertEquals(book.getVersion() + THREADS * DISCOUNTS_PER_THREAD, stored.getVersion());
+
+        ConflictStatsDTO after = bookService.getConflictStats();
+        assertEquals(THREADS * DISCOUNTS_PER_THREAD, after.getOperations() - before.getOperations());
+        assertEquals(0, after.getExhausted() - before.getExhausted());
+        assertEquals(after.getAttempts() - before.getAttempts(),
+                after.getOperations() - before.getOperations() + after.getConflicts() - before.getConflicts());
+    }
+}
@@ -3,7 +3,9 @@ package com.graphqldemo.promp_eng_project;
 import com.graphqldemo.promp_eng_project.controller.BookController;
 import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
 import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.service.BookJsonCache;
 import com.graphqldemo.promp_eng_project.service.BookService;
+import com.graphqldemo.promp_eng_project.service.BookWriteBatcher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -11,6 +13,7 @@ import org.mockito.Mockito;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,7 +29,8 @@ public class BookControllerMvcTest {
     @BeforeEach
     public void setUp() {
         bookService = Mockito.mock(BookService.class);
-        controller = new BookController(bookService);
+        controller = new BookController(bookService, Mockito.mock(BookJsonCache.class),
+                new BookWriteBatcher(bookService, false, 50, Duration.ofMillis(5), Duration.ofSeconds(10)));
 
         // Prepare mocked responses from BookService.createBook
         AuthorDTO author1 = new AuthorDTO();
@@ -0,0 +1,151 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.BulkDiscountRequestDTO;
+import com.graphqldemo.promp_eng_project.dto.BulkDiscountResultDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.entity.Book;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookDiscountTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private CatalogFixture catalog;
+    private Author fowler;
+    private Author beck;
+
+    @BeforeEach
+    public void setUp() {
+        catalog = new CatalogFixture(bookRepository, authorRepository);
+        catalog.clear();
+        fowler = catalog.author("Martin Fowler");
+        beck = catalog.author("Kent Beck");
+    }
+
+    private BigDecimal priceOf(Book book) {
+        return bookRepository.findById(book.getId()).orElseThrow().getPrice();
+    }
+
+    @Test
+    public void bulkDiscountByAuthor_roundsLikeSingleDiscount() {
+        Book single = catalog.save("Refactoring", fowler, "49.99");
+        Book bulk = catalog.save("Analysis Patterns", fowler, "49.99");
+        Book untouched = catalog.save("TDD by Example", beck, "49.99");
+
+        BookDTO discounted = bookService.applyDiscount(single.getId(), new BigDecimal("15"));
+        // the single-book path returns exactly what is stored
+        assertEquals(new BigDecimal("42.49"), discounted.getPrice());
+
+        BulkDiscountRequestDTO request = new BulkDiscountRequestDTO();
+        request.setDiscountPercentage(new BigDecimal("15"));
+        request.setAuthorId(fowler.getId());
+        BulkDiscountResultDTO result = bookService.applyBulkDiscount(request);
+
+        assertEquals(2, result.getUpdated());
+        assertNull(result.getBooks());
+        assertEquals(0, new BigDecimal("36.12").compareTo(priceOf(single)));
+        assertEquals(0, new BigDecimal("42.49").compareTo(priceOf(bulk)));
+        assertEquals(0, new BigDecimal("49.99").compareTo(priceOf(untouched)));
+    }
+
+    @Test
+    public void bulkDiscountByPriceBand_returnsUpdatedRows() {
+        catalog.save("Cheap", fowler, "10.00");
+        Book mid = catalog.save("Mid", beck, "20.00");
+        catalog.save("Expensive", fowler, "90.00");
+
+        BulkDiscountRequestDTO request = new BulkDiscountRequestDTO();
+        request.setDiscountPercentage(new BigDecimal("50"));
+        request.setMinPrice(new BigDecimal("15.00"));
+        request.setMaxPrice(new BigDecimal("50.00"));
+        request.setReturnBooks(true);
+        BulkDiscountResultDTO result = bookService.applyBulkDiscount(request);
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getBooks().size());
+        assertEquals(mid.getId(), result.getBooks().get(0).getId());
+        assertEquals(0, new BigDecimal("10.00").compareTo(result.getBooks().get(0).getPrice()));
+        assertEquals("Kent Beck", result.getBooks().get(0).getAuthor().getName());
+    }
+
+    @Test
+    public void bulkDiscountByIds_updatesOnlyListedBooks() {
+        Book a = catalog.save("A", fowler, "10.00");
+        Book b = catalog.save("B", fowler, "10.00");
+
+        BulkDiscountRequestDTO request = new BulkDiscountRequestDTO();
+        request.setDiscountPercentage(new BigDecimal("100"));
+        request.setBookIds(List.of(a.getId()));
+        assertEquals(1, bookService.applyBulkDiscount(request).getUpdated());
+        assertEquals(0, BigDecimal.ZERO.compareTo(priceOf(a)));
+        assertEquals(0, new BigDecimal("10.00").compareTo(priceOf(b)));
+    }
+
+    @Test
+    public void bulkDiscountByIds_chunksLongIdLists() {
+        Book listed = catalog.save("Patterns of Enterprise Application Architecture", fowler, "40.00");
+        List<Long> ids = new ArrayList<>();
+        ids.add(listed.getId());
+        for (long id = 1; ids.size() < 2500; id++) {
+            if (id != listed.getId()) ids.add(-id);
+        }
+        // repeated at the end, so it would land in another chunk if the list were not deduplicated
+        ids.add(listed.getId());
+
+        BulkDiscountRequestDTO request = new BulkDiscountRequestDTO();
+        request.setDiscountPercentage(new BigDecimal("50"));
+        request.setBookIds(ids);
+        request.setReturnBooks(true);
+        BulkDiscountResultDTO result = bookService.applyBulkDiscount(request);
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(0, new BigDecimal("20.00").compareTo(priceOf(listed)));
+    }
+
+    @Test
+    public void bulkDiscount_rejectsBadRequests() {
+        BulkDiscountRequestDTO outOfRange = new BulkDiscountRequestDTO();
+        outOfRange.setDiscountPercentage(new BigDecimal("101"));
+        outOfRange.setAuthorId(fowler.getId());
+        assertThrows(IllegalArgumentException.class, () -> bookService.applyBulkDiscount(outOfRange));
+
+        BulkDiscountRequestDTO twoSelectors = new BulkDiscountRequestDTO();
+        twoSelectors.setDiscountPercentage(BigDecimal.TEN);
+        twoSelectors.setAuthorId(fowler.getId());
+        twoSelectors.setMinPrice(BigDecimal.ONE);
+        assertThrows(IllegalArgumentException.class, () -> bookService.applyBulkDiscount(twoSelectors));
+
+        BulkDiscountRequestDTO tooManyIds = new BulkDiscountRequestDTO();
+        tooManyIds.setDiscountPercentage(BigDecimal.TEN);
+        tooManyIds.setBookIds(LongStream.rangeClosed(1, BookService.MAX_BULK_BOOK_IDS + 1).boxed().toList());
+        assertThrows(IllegalArgumentException.class, () -> bookService.applyBulkDiscount(tooManyIds));
+
+        BulkDiscountRequestDTO noSelector = new BulkDiscountRequestDTO();
+        noSelector.setDiscountPercentage(BigDecimal.TEN);
+        assertThrows(IllegalArgumentException.class, () -> bookService.applyBulkDiscount(noSelector));
+    }
+}
@@ -0,0 +1,133 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.entity.Book;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookGraphQlTest {
+
+    private static final int AUTHORS = 10;
+    private static final int BOOKS_PER_AUTHOR = 10;
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private GraphQlTester graphQlTester;
+    private StatementCounter statements;
+    private Author firstAuthor;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        for (int a = 0; a < AUTHORS; a++) {
+            Author author = new Author();
+            author.setName("Author " + a);
+            author = authorRepository.save(author);
+            if (firstAuthor == null) firstAuthor = author;
+            for (int b = 0; b < BOOKS_PER_AUTHOR; b++) {
+                Book book = new Book();
+                book.setTitle("Volume " + a + "-" + b);
+                book.setAuthor(author);
+                book.setPrice(new BigDecimal("10.00"));
+                bookRepository.save(book);
+            }
+        }
+        graphQlTester = ExecutionGraphQlServiceTester.create(graphQlService);
+        statements = new StatementCounter(entityManagerFactory);
+    }
+
+    @Test
+    public void hundredBooksWithAuthors_runOneStatement() {
+        statements.assertStatements(1, () -> graphQlTester.document("""
+                        { searchBooks(title: "volume", limit: 100) { id title price author { name } } }""")
+                .execute()
+                .path("searchBooks").entityList(Object.class).hasSize(AUTHORS * BOOKS_PER_AUTHOR)
+                .path("searchBooks[0].author.name").entity(String.class).isEqualTo("Author 0"));
+    }
+
+    @Test
+    public void authorsWithBooks_areBatched() {
+        statements.assertStatements(2, () -> graphQlTester.document("""
+                        { authors(limit: 10) { name books { title author { name } } } }""")
+                .execute()
+                .path("authors").entityList(Object.class).hasSize(AUTHORS)
+                .path("authors[9].books").entityList(Object.class).hasSize(BOOKS_PER_AUTHOR));
+    }
+
+    @Test
+    public void mutations_createAndDiscount() {
+        String id = graphQlTester.document("""
+                        mutation { createBook(input: { title: "Refactoring", price: 49.99, author: { id: "%d" } }) { id author { name } } }"""
+                        .formatted(firstAuthor.getId()))
+                .execute()
+                .path("createBook.author.name").entity(String.class).isEqualTo("Author 0")
+                .path("createBook.id").entity(String.class).get();
+
+        graphQlTester.document("mutation { applyDiscount(bookId: \"" + id + "\", percentage: 15) { price } }")
+                .execute()
+                .path("applyDiscount.price").entity(BigDecimal.class).isEqualTo(new BigDecimal("42.49"));
+    }
+
+    @Test
+    public void prices_keepTheirDigitsAndScale() {
+        // 10.00 as stored and as REST sends it, not the double 10.0
+        graphQlTester.document("{ searchBooks(title: \"Volume 0-0\", limit: 1) { price } }")
+                .execute()
+                .path("searchBooks[0].price").entity(BigDecimal.class).isEqualTo(new BigDecimal("10.00"));
+
+        graphQlTester.document("""
+                        mutation { createBook(input: { title: "Patterns of Enterprise Application Architecture", price: "59.95", author: { id: "%d" } }) { price } }"""
+                        .formatted(firstAuthor.getId()))
+                .execute()
+                .path("createBook.price").entity(BigDecimal.class).isEqualTo(new BigDecimal("59.95"));
+    }
+
+    @Test
+    public void invalidInput_isBadRequest() {
+        graphQlTester.document("mutation { applyDiscount(bookId: \"1\", percentage: 150) { price } }")
+                .execute()
+                .errors().expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST).verify();
+    }
+
+    @Test
+    public void deepAndCostlyDocuments_areRejectedBeforeExecution() {
+        statements.assertStatements(0, () -> {
+            graphQlTester.document("""
+                            { authors { books { author { books { author { books { author { books { title } } } } } } } } }""")
+                    .execute()
+                    .errors().expect(error -> error.getMessage().contains("depth")).verify();
+            graphQlTester.document("""
+                            { authors(limit: 500) { books { author { books { title } } } } }""")
+                    .execute()
+                    .errors().expect(error -> error.getMessage().contains("complexity")).verify();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookImportControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private MockMvc mvc;
+    private Author author;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        Author a = new Author();
+        a.setName("Jez Humble");
+        author = authorRepository.save(a);
+        mvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    private String line(String title, String price) {
+        return "{\"title\":\"" + title + "\",\"author\":{\"id\":" + author.getId() + "},\"price\":" + price + "}\n";
+    }
+
+    @Test
+    public void ndjson_reportsEachLine() throws Exception {
+        String body = line("Continuous Delivery", "39.99") + line("Lean Enterprise", "-5") + line("Accelerate", "24.99");
+
+        mvc.perform(post("/api/books/batch").contentType("application/x-ndjson").content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[1].error").value("price must be non-negative"))
+                .andExpect(jsonPath("$.results[2].status").value("CREATED"));
+        assertEquals(2, bookRepository.count());
+    }
+
+    @Test
+    public void ndjson_malformedLineRejectsTheRequest() throws Exception {
+        String body = line("The DevOps Handbook", "29.99") + "{\"title\": \n";
+
+        mvc.perform(post("/api/books/batch").contentType("application/x-ndjson").content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(startsWith("malformed NDJSON")));
+        assertEquals(0, bookRepository.count());
+    }
+
+    @Test
+    public void unsupportedContentType_is415() throws Exception {
+        mvc.perform(post("/api/books/batch").contentType(MediaType.TEXT_PLAIN).content("Building Microservices"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+}
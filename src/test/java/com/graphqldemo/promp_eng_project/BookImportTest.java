@@ -0,0 +1,115 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.BookImportResultDTO;
+import com.graphqldemo.promp_eng_project.dto.BookImportSummaryDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookImportTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private Long existingAuthorId;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+
+        Author author = new Author();
+        author.setName("Kent Beck");
+        existingAuthorId = authorRepository.save(author).getId();
+    }
+
+    private BookDTO book(String title, AuthorDTO author, String price) {
+        return new BookDTO(null, title, author, price == null ? null : new BigDecimal(price));
+    }
+
+    @Test
+    public void importBooks_createsValidEntriesAndReportsRejectedOnes() {
+        List<BookDTO> request = new ArrayList<>();
+        // more books than one JDBC batch, spread over two new author names and one existing author
+        for (int i = 0; i < 120; i++) {
+            AuthorDTO author = switch (i % 3) {
+                case 0 -> new AuthorDTO(null, "Kent Beck", null, null);
+                case 1 -> new AuthorDTO(null, "Ward Cunningham", null, null);
+                default -> new AuthorDTO(null, "Ron Jeffries", "XP coach", null);
+            };
+            request.add(book("Book " + i, author, "19.99"));
+        }
+        request.add(book(null, new AuthorDTO(null, "Kent Beck", null, null), "9.99"));
+        request.add(book("Negative", new AuthorDTO(null, "Kent Beck", null, null), "-1.00"));
+        request.add(book("Unknown author", new AuthorDTO(-1L, null, null, null), "9.99"));
+        request.add(book("By id", new AuthorDTO(existingAuthorId, null, null, null), "29.99"));
+
+        BookImportSummaryDTO summary = bookService.importBooks(request);
+
+        assertEquals(121, summary.getCreated());
+        assertEquals(3, summary.getRejected());
+        assertEquals(request.size(), summary.getResults().size());
+
+        BookImportResultDTO missingTitle = summary.getResults().get(120);
+        assertEquals(BookImportResultDTO.REJECTED, missingTitle.getStatus());
+        assertEquals("title is required", missingTitle.getError());
+        assertEquals("price must be non-negative", summary.getResults().get(121).getError());
+        assertEquals("author not found", summary.getResults().get(122).getError());
+
+        BookImportResultDTO byId = summary.getResults().get(123);
+        assertEquals(BookImportResultDTO.CREATED, byId.getStatus());
+        assertEquals(existingAuthorId, bookService.getBookById(byId.getId()).orElseThrow().getAuthor().getId());
+
+        // existing name reused, each new name created exactly once
+        assertEquals(3, authorRepository.count());
+        assertEquals(121, bookRepository.count());
+        assertEquals(41, bookRepository.findByAuthorId(existingAuthorId).size());
+    }
+
+    @Test
+    public void importBooks_withMoreAuthorsThanOneInClause() {
+        // more distinct authors, by id and by name, than one IN list may bind
+        List<Author> existing = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            Author author = new Author();
+            author.setName("Existing author " + i);
+            existing.add(author);
+        }
+        existing = authorRepository.saveAll(existing);
+
+        List<BookDTO> request = new ArrayList<>();
+        for (int i = 0; i < existing.size(); i++) {
+            request.add(book("Catalogued by id " + i, new AuthorDTO(existing.get(i).getId(), null, null, null), "9.99"));
+            request.add(book("Catalogued by name " + i, new AuthorDTO(null, "Existing author " + i, null, null), "9.99"));
+        }
+
+        BookImportSummaryDTO summary = bookService.importBooks(request);
+
+        assertEquals(5000, summary.getCreated());
+        assertEquals(0, summary.getRejected());
+        // every name matched an existing author
+        assertEquals(2501, authorRepository.count());
+    }
+}
@@ -0,0 +1,170 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.controller.BookController;
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.service.BookChangedEvent;
+import com.graphqldemo.promp_eng_project.service.BookJsonCache;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import com.graphqldemo.promp_eng_project.service.BookWriteBatcher;
+import com.graphqldemo.promp_eng_project.service.CatalogVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookJsonCacheTest {
+
+    private final JsonMapper mapper = new JsonMapper();
+    private BookService bookService;
+    private BookJsonCache cache;
+    private BookController controller;
+    private BookDTO book;
+    private final CatalogVersion.Stamp stamp = new CatalogVersion.Stamp(42L, 1_700_000_000_000L);
+
+    @BeforeEach
+    public void setUp() {
+        bookService = Mockito.mock(BookService.class);
+        book = new BookDTO(7L, "Domain-Driven Design", new AuthorDTO(3L, "Eric Evans", null, null), new BigDecimal("59.99"));
+        Mockito.when(bookService.getBookById(7L)).thenReturn(Optional.of(book));
+        Mockito.when(bookService.getBookById(8L)).thenReturn(Optional.empty());
+        Mockito.when(bookService.getCatalogStamp()).thenReturn(stamp);
+
+        cache = new BookJsonCache(mapper, true, true, 100, Duration.ofMinutes(10));
+        controller = new BookController(bookService, cache, new BookWriteBatcher(bookService, false, 50, Duration.ofMillis(5), Duration.ofSeconds(10)));
+    }
+
+    private ResponseEntity<?> get(Long id, String acceptEncoding) {
+        return controller.getBookById(id, acceptEncoding, new ServletWebRequest(new MockHttpServletRequest("GET", "/api/books/" + id)));
+    }
+
+    @Test
+    public void hotBook_isServedFromEncodedBytes() {
+        ResponseEntity<?> first = get(7L, null);
+        ResponseEntity<?> second = get(7L, null);
+
+        assertEquals(200, second.getStatusCode().value());
+        assertSame(first.getBody(), second.getBody());
+        assertEquals(book, mapper.readValue((byte[]) second.getBody(), BookDTO.class));
+        Mockito.verify(bookService, Mockito.times(1)).getBookById(7L);
+    }
+
+    @Test
+    public void gzip_isOnlySentWhenAccepted() throws Exception {
+        ResponseEntity<?> zipped = get(7L, "gzip, deflate");
+        assertEquals("gzip", zipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        byte[] json = new GZIPInputStream(new ByteArrayInputStream((byte[]) zipped.getBody())).readAllBytes();
+        assertEquals(book, mapper.readValue(json, BookDTO.class));
+
+        ResponseEntity<?> plain = get(7L, null);
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void gzipVariant_hasItsOwnEtag() {
+        ResponseEntity<?> zipped = get(7L, "gzip");
+        ResponseEntity<?> plain = get(7L, null);
+        assertEquals(stamp.etag("gzip"), zipped.getHeaders().getETag());
+        assertEquals(stamp.etag(), plain.getHeaders().getETag());
+
+        // the identity tag does not validate the gzip body, nor the other way round
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/7");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, stamp.etag());
+        assertEquals(200, controller.getBookById(7L, "gzip", new ServletWebRequest(request)).getStatusCode().value());
+
+        request = new MockHttpServletRequest("GET", "/api/books/7");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, stamp.etag("gzip"));
+        ResponseEntity<?> revalidated = controller.getBookById(7L, "gzip", new ServletWebRequest(request));
+        assertEquals(304, revalidated.getStatusCode().value());
+        assertEquals(stamp.etag("gzip"), revalidated.getHeaders().getETag());
+    }
+
+    @Test
+    public void writes_evictEncodedBytes() {
+        get(7L, null);
+        cache.onBookChanged(BookChangedEvent.updated(book));
+        get(7L, null);
+        Mockito.verify(bookService, Mockito.times(2)).getBookById(7L);
+    }
+
+    @Test
+    public void missingBook_is404() {
+        assertEquals(404, get(8L, null).getStatusCode().value());
+    }
+
+    @Test
+    public void responses_carryCatalogValidators() {
+        ResponseEntity<?> response = get(7L, null);
+        assertEquals(stamp.etag(), response.getHeaders().getETag());
+        assertEquals(stamp.lastModified(), response.getHeaders().getLastModified());
+    }
+
+    @Test
+    public void matchingEtag_is304FromTheCachedCopy() {
+        get(7L, null);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/7");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, stamp.etag());
+
+        ResponseEntity<?> response = controller.getBookById(7L, null, new ServletWebRequest(request));
+
+        assertEquals(304, response.getStatusCode().value());
+        assertNull(response.getBody());
+        Mockito.verify(bookService, Mockito.times(1)).getBookById(7L);
+    }
+
+    @Test
+    public void matchingEtag_onMissingBook_is404() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/8");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, stamp.etag());
+
+        assertEquals(404, controller.getBookById(8L, null, new ServletWebRequest(request)).getStatusCode().value());
+    }
+
+    @Test
+    public void matchingEtag_withBadPageParameters_is400() {
+        Mockito.doThrow(new IllegalArgumentException("limit must be between 1 and 500"))
+                .when(bookService).validatePageRequest(null, 0, null);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, stamp.etag());
+
+        assertEquals(400, controller.getAllBooks(null, 0, null, new ServletWebRequest(request)).getStatusCode().value());
+    }
+
+    @Test
+    public void staleEtag_getsFullResponse() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/7");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"41\"");
+
+        assertEquals(200, controller.getBookById(7L, null, new ServletWebRequest(request)).getStatusCode().value());
+    }
+
+    @Test
+    public void catalogVersion_bumpsOnEveryWrite() {
+        CatalogVersion version = new CatalogVersion(Duration.ofMinutes(10));
+        CatalogVersion.Stamp before = version.current();
+        version.onBookChanged(BookChangedEvent.bulkUpdated());
+        assertNotEquals(before.etag(), version.current().etag());
+    }
+
+    @Test
+    public void catalogVersion_expiresWithoutWrites() throws InterruptedException {
+        // writes through another instance are not seen here; a stamp must not validate forever
+        CatalogVersion version = new CatalogVersion(Duration.ofMillis(20));
+        CatalogVersion.Stamp before = version.current();
+        assertEquals(before, version.current());
+        Thread.sleep(30);
+        assertNotEquals(before.etag(), version.current().etag());
+    }
+}
@@ -0,0 +1,112 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.BookPageDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.entity.Book;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookPaginationTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+
+        Author author = new Author();
+        author.setName("Martin Fowler");
+        author = authorRepository.save(author);
+
+        // duplicate prices make the id tie-breaker matter
+        String[] titles = {"Refactoring", "Analysis Patterns", "UML Distilled", "Domain-Specific Languages",
+                "Patterns of Enterprise Application Architecture", "NoSQL Distilled", "Planning Extreme Programming"};
+        String[] prices = {"49.99", "39.99", "29.99", "49.99", "59.99", "29.99", "39.99"};
+        for (int i = 0; i < titles.length; i++) {
+            Book book = new Book();
+            book.setTitle(titles[i]);
+            book.setAuthor(author);
+            book.setPrice(new BigDecimal(prices[i]));
+            bookRepository.save(book);
+        }
+    }
+
+    private List<BookDTO> readAllPages(String sort, int limit) {
+        List<BookDTO> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            BookPageDTO page = bookService.getBooksPage(cursor, limit, sort);
+            assertTrue(page.getItems().size() <= limit);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    @Test
+    public void pagesById_visitEveryBookOnceInOrder() {
+        List<BookDTO> books = readAllPages("id", 3);
+        assertEquals(7, books.size());
+        for (int i = 1; i < books.size(); i++) {
+            assertTrue(books.get(i - 1).getId() < books.get(i).getId());
+        }
+    }
+
+    @Test
+    public void pagesByPrice_breakTiesOnId() {
+        List<BookDTO> books = readAllPages("price", 2);
+        assertEquals(7, books.size());
+        Comparator<BookDTO> order = Comparator.comparing(BookDTO::getPrice).thenComparing(BookDTO::getId);
+        for (int i = 1; i < books.size(); i++) {
+            assertTrue(order.compare(books.get(i - 1), books.get(i)) < 0);
+        }
+    }
+
+    @Test
+    public void pagesByTitle_areSortedAndComplete() {
+        List<BookDTO> books = readAllPages("title", 4);
+        assertEquals(7, books.size());
+        for (int i = 1; i < books.size(); i++) {
+            assertTrue(books.get(i - 1).getTitle().compareTo(books.get(i).getTitle()) < 0);
+        }
+    }
+
+    @Test
+    public void lastPage_hasNoNextCursor() {
+        BookPageDTO page = bookService.getBooksPage(null, 10, null);
+        assertEquals(7, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void cursorFromAnotherSort_isRejected() {
+        String cursor = bookService.getBooksPage(null, 2, "price").getNextCursor();
+        assertThrows(IllegalArgumentException.class, () -> bookService.getBooksPage(cursor, 2, "title"));
+        assertThrows(IllegalArgumentException.class, () -> bookService.getBooksPage("not-a-cursor", 2, "id"));
+        assertThrows(IllegalArgumentException.class, () -> bookService.getBooksPage(null, 0, "id"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.entity.Book;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards against N+1 author loads: every BookService read must run a fixed number of statements
+ * regardless of how many books (and distinct authors) it returns.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookQueryCountTest {
+
+    private static final int AUTHORS = 5;
+    private static final int BOOKS_PER_AUTHOR = 4;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter statements;
+    private Long firstBookId;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+
+        for (int a = 0; a < AUTHORS; a++) {
+            Author author = new Author();
+            author.setName("Author " + a);
+            author = authorRepository.save(author);
+            for (int b = 0; b < BOOKS_PER_AUTHOR; b++) {
+                Book book = new Book();
+                book.setTitle("Volume " + a + "-" + b);
+                book.setAuthor(author);
+                book.setPrice(new BigDecimal("10.00"));
+                Book saved = bookRepository.save(book);
+                if (firstBookId == null) firstBookId = saved.getId();
+            }
+        }
+
+        statements = new StatementCounter(entityManagerFactory);
+    }
+
+    @Test
+    public void getAllBooks_runsOneStatement() {
+        List<BookDTO> books = statements.assertStatements(1, bookService::getAllBooks);
+        assertEquals(AUTHORS * BOOKS_PER_AUTHOR, books.size());
+        books.forEach(b -> assertNotNull(b.getAuthor().getName()));
+    }
+
+    @Test
+    public void getBooksPage_runsOneStatement() {
+        statements.assertStatements(1, () -> bookService.getBooksPage(null, 10, "title"));
+    }
+
+    @Test
+    public void findBooksByTitleContaining_runsOneStatement() {
+        List<BookDTO> books = statements.assertStatements(1, () -> bookService.findBooksByTitleContaining("volume"));
+        assertEquals(AUTHORS * BOOKS_PER_AUTHOR, books.size());
+    }
+
+    @Test
+    public void singleBookLookups_runOneStatement() {
+        assertTrue(statements.assertStatements(1, () -> bookService.getBookById(firstBookId)).isPresent());
+        assertTrue(statements.assertStatements(1, () -> bookService.findBookByTitle("Volume 2-1")).isPresent());
+    }
+
+    @Test
+    public void exportBooks_streamsEveryBookInOneStatement() {
+        List<BookDTO> exported = new ArrayList<>();
+        long count = statements.assertStatements(1, () -> bookService.exportBooks(exported::add));
+        assertEquals(AUTHORS * BOOKS_PER_AUTHOR, count);
+        assertEquals(AUTHORS * BOOKS_PER_AUTHOR, exported.size());
+        exported.forEach(b -> assertNotNull(b.getAuthor().getName()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.entity.Book;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+
+import java.math.BigDecimal;
+
+/**
+ * Seeds authors and books straight through the repositories, so no {@code BookChangedEvent} is published and
+ * in-memory read models only see them after a rebuild.
+ */
+class CatalogFixture {
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+
+    CatalogFixture(BookRepository bookRepository, AuthorRepository authorRepository) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+    }
+
+    void clear() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    Author author(String name) {
+        Author author = new Author();
+        author.setName(name);
+        return authorRepository.save(author);
+    }
+
+    Book save(String title, Author author, String price) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setPrice(new BigDecimal(price));
+        return bookRepository.save(book);
+    }
+}
@@ -0,0 +1,159 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.config.SqlRecorder;
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.BulkDiscountRequestDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.entity.Book;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.BookChangedEvent;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import com.graphqldemo.promp_eng_project.service.CatalogSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "catalog.snapshot.enabled=true")
+@ActiveProfiles("test")
+public class CatalogSnapshotTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private Author kleppmann;
+    private Book ddia;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        Author a = new Author();
+        a.setName("Martin Kleppmann");
+        a.setBio("Distributed systems researcher");
+        kleppmann = authorRepository.save(a);
+        ddia = bookRepository.save(book("Designing Data-Intensive Applications", "45.99"));
+        bookRepository.save(book("Database Internals", "39.50"));
+        // seeded behind the service's back, so load them explicitly
+        catalogSnapshot.reload();
+    }
+
+    private Book book(String title, String price) {
+        Book b = new Book();
+        b.setTitle(title);
+        b.setAuthor(kleppmann);
+        b.setPrice(new BigDecimal(price));
+        return b;
+    }
+
+    /** Runs {@code read} and checks that it sent no SQL. */
+    private <T> T withoutSql(Supplier<T> read) {
+        SqlRecorder recorder = SqlRecorder.start();
+        try {
+            return read.get();
+        } finally {
+            SqlRecorder.stop();
+            assertEquals(0, recorder.getStatements(), recorder.getSql().toString());
+        }
+    }
+
+    @Test
+    public void reads_areServedWithoutTheDatabase() {
+        assertTrue(catalogSnapshot.isReady());
+        assertEquals(2, catalogSnapshot.size());
+
+        BookDTO byId = withoutSql(() -> bookService.getBookById(ddia.getId())).orElseThrow();
+        assertEquals("Designing Data-Intensive Applications", byId.getTitle());
+        assertEquals(new BigDecimal("45.99"), byId.getPrice());
+        assertEquals(kleppmann.getId(), byId.getAuthor().getId());
+        assertEquals("Distributed systems researcher", byId.getAuthor().getBio());
+
+        assertEquals(new BigDecimal("39.50"),
+                withoutSql(() -> bookService.findBookByTitle("Database Internals")).orElseThrow().getPrice());
+        assertTrue(withoutSql(() -> bookService.findBookByTitle("database internals")).isEmpty());
+        assertTrue(withoutSql(() -> bookService.getBookById(-1L)).isEmpty());
+
+        List<BookDTO> all = withoutSql(() -> bookService.getAllBooks());
+        assertEquals(List.of("Designing Data-Intensive Applications", "Database Internals"),
+                all.stream().map(BookDTO::getTitle).toList());
+
+        List<BookDTO> found = withoutSql(() -> bookService.findBooksByTitleContaining("DATA", null));
+        assertEquals(2, found.size());
+        assertEquals(1, withoutSql(() -> bookService.findBooksByTitleContaining("data", 1)).size());
+        assertEquals(List.of("Designing Data-Intensive Applications"),
+                withoutSql(() -> bookService.findBooksByTitleContaining("intensive", 10)).stream().map(BookDTO::getTitle).toList());
+    }
+
+    @Test
+    public void committedWrites_areSwappedIn() {
+        BookDTO created = bookService.createBook(new BookDTO(null, "Streaming Systems",
+                new AuthorDTO(kleppmann.getId(), null, null, null), new BigDecimal("49")));
+        // stored as numeric(10, 2), and served the way the database would return it
+        assertEquals(new BigDecimal("49.00"),
+                withoutSql(() -> bookService.getBookById(created.getId())).orElseThrow().getPrice());
+
+        bookService.applyDiscount(ddia.getId(), new BigDecimal("10"));
+        assertEquals(new BigDecimal("41.39"),
+                withoutSql(() -> bookService.getBookById(ddia.getId())).orElseThrow().getPrice());
+
+        bookService.importBooks(List.of(
+                new BookDTO(null, "Release It!", new AuthorDTO(null, "Michael Nygard", null, null), new BigDecimal("34.95")),
+                new BookDTO(null, "Site Reliability Engineering", new AuthorDTO(null, "Betsy Beyer", null, null), new BigDecimal("44.99"))));
+        assertEquals(5, catalogSnapshot.size());
+        assertEquals("Michael Nygard",
+                withoutSql(() -> bookService.findBookByTitle("Release It!")).orElseThrow().getAuthor().getName());
+        assertEquals(5, withoutSql(() -> bookService.getAllBooks()).size());
+    }
+
+    @Test
+    public void changesAppliedOutOfCommitOrder_keepTheNewestVersion() {
+        AuthorDTO author = new AuthorDTO(kleppmann.getId(), "Martin Kleppmann", null, null);
+        BookDTO v2 = new BookDTO(ddia.getId(), ddia.getTitle(), author, new BigDecimal("30.00"));
+        BookDTO v1 = new BookDTO(ddia.getId(), ddia.getTitle(), author, new BigDecimal("35.00"));
+
+        // committed as v1 then v2, but their after-commit callbacks ran the other way round
+        catalogSnapshot.onBookChanged(BookChangedEvent.updated(v2, new BigDecimal("35.00"), 2L));
+        catalogSnapshot.onBookChanged(BookChangedEvent.updated(v1, new BigDecimal("45.99"), 1L));
+        assertEquals(new BigDecimal("30.00"), bookService.getBookById(ddia.getId()).orElseThrow().getPrice());
+
+        // the same version again is not newer either
+        BookDTO replay = new BookDTO(ddia.getId(), ddia.getTitle(), author, new BigDecimal("1.00"));
+        catalogSnapshot.onBookChanged(BookChangedEvent.updated(replay, null, 2L));
+        assertEquals(new BigDecimal("30.00"), bookService.getBookById(ddia.getId()).orElseThrow().getPrice());
+    }
+
+    @Test
+    public void bulkDiscount_readsTheDatabaseUntilReloaded() throws InterruptedException {
+        BulkDiscountRequestDTO request = new BulkDiscountRequestDTO();
+        request.setDiscountPercentage(new BigDecimal("50"));
+        request.setAuthorId(kleppmann.getId());
+        bookService.applyBulkDiscount(request);
+
+        // whether or not the reload has finished, the new price is what reads see
+        assertEquals(new BigDecimal("23.00"), bookService.getBookById(ddia.getId()).orElseThrow().getPrice());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!catalogSnapshot.isReady() && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertTrue(catalogSnapshot.isReady());
+        assertEquals(new BigDecimal("19.75"),
+                withoutSql(() -> bookService.findBookByTitle("Database Internals")).orElseThrow().getPrice());
+    }
+}
@@ -0,0 +1,226 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.AuthorStatsDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.BulkDiscountRequestDTO;
+import com.graphqldemo.promp_eng_project.dto.CatalogStatsDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.entity.Book;
+import com.graphqldemo.promp_eng_project.repository.AuthorPriceCountView;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.BookChangedEvent;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import com.graphqldemo.promp_eng_project.service.CatalogStats;
+import com.graphqldemo.promp_eng_project.service.CatalogVersion;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CatalogStatsTest {
+
+    @Autowired
+    private CatalogStats catalogStats;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    private CatalogFixture catalog;
+    private Author fowler;
+    private Author beck;
+    private Book dearest;
+
+    @BeforeEach
+    public void setUp() {
+        catalog = new CatalogFixture(bookRepository, authorRepository);
+        catalog.clear();
+        fowler = catalog.author("Martin Fowler");
+        beck = catalog.author("Kent Beck");
+        catalog.save("Refactoring", fowler, "40.00");
+        dearest = catalog.save("PoEAA", fowler, "60.00");
+        catalog.save("TDD by Example", beck, "30.00");
+        // seeded through the repository, so build from the database
+        catalogStats.rebuild();
+    }
+
+    private AuthorStatsDTO statsOf(CatalogStatsDTO stats, Author author) {
+        return stats.getAuthors().stream()
+                .filter(a -> a.getAuthorId().equals(author.getId()))
+                .findFirst().orElseThrow();
+    }
+
+    private static void assertPrice(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+
+    @Test
+    public void reads_runNoQueries() {
+        CatalogStatsDTO stats = new StatementCounter(entityManagerFactory).assertStatements(0, bookService::getCatalogStats);
+
+        assertEquals(3, stats.getBooks());
+        AuthorStatsDTO f = statsOf(stats, fowler);
+        assertEquals(2, f.getBooks());
+        assertPrice("40.00", f.getMinPrice());
+        assertPrice("50.00", f.getAvgPrice());
+        assertPrice("60.00", f.getMaxPrice());
+    }
+
+    @Test
+    public void createsAndDiscounts_keepAggregatesExact() {
+        bookService.createBook(new BookDTO(null, "Extreme Programming Explained", new AuthorDTO(beck.getId(), null, null, null), new BigDecimal("19.99")));
+        // discounting the dearest book moves the maximum down to the next price
+        bookService.applyDiscount(dearest.getId(), new BigDecimal("50"));
+
+        CatalogStatsDTO stats = catalogStats.stats();
+        assertEquals(4, stats.getBooks());
+        AuthorStatsDTO f = statsOf(stats, fowler);
+        assertPrice("30.00", f.getMinPrice());
+        assertPrice("40.00", f.getMaxPrice());
+        assertPrice("70.00", f.getTotalPrice());
+        AuthorStatsDTO b = statsOf(stats, beck);
+        assertEquals(2, b.getBooks());
+        assertPrice("19.99", b.getMinPrice());
+        assertPrice("25.00", b.getAvgPrice());
+
+        assertFalse(catalogStats.reconcile());
+    }
+
+    @Test
+    public void pricesAreCountedAsStored() {
+        BookDTO created = bookService.createBook(new BookDTO(null, "Test-Driven Development", new AuthorDTO(beck.getId(), null, null, null), new BigDecimal("19.999")));
+        // numeric(10, 2) keeps 20.00, and so do the response and the aggregates
+        assertEquals(new BigDecimal("20.00"), created.getPrice());
+        assertEquals(new BigDecimal("20.00"), statsOf(catalogStats.stats(), beck).getMinPrice());
+        assertFalse(catalogStats.reconcile());
+    }
+
+    @Test
+    public void bulkDiscounts_rebuildFromTheDatabase() {
+        BulkDiscountRequestDTO request = new BulkDiscountRequestDTO();
+        request.setDiscountPercentage(BigDecimal.TEN);
+        request.setAuthorId(fowler.getId());
+        bookService.applyBulkDiscount(request);
+
+        // stale until the background rebuild finishes, so read from the database meanwhile
+        AuthorStatsDTO f = statsOf(catalogStats.stats(), fowler);
+        assertPrice("36.00", f.getMinPrice());
+        assertPrice("54.00", f.getMaxPrice());
+
+        catalogStats.rebuild();
+        f = statsOf(catalogStats.stats(), fowler);
+        assertPrice("36.00", f.getMinPrice());
+        assertPrice("54.00", f.getMaxPrice());
+        assertFalse(catalogStats.reconcile());
+    }
+
+    @Test
+    public void disabled_readsTheDatabaseEveryTime() {
+        CatalogStats disabled = new CatalogStats(bookRepository, transactionManager, catalogVersion, false);
+        assertEquals(3, disabled.stats().getBooks());
+
+        // no events reach it, so a cached build would miss this book
+        bookService.createBook(new BookDTO(null, "Smalltalk Best Practice Patterns", new AuthorDTO(beck.getId(), null, null, null), new BigDecimal("44.00")));
+        CatalogStatsDTO stats = disabled.stats();
+        assertEquals(4, stats.getBooks());
+        assertPrice("44.00", statsOf(stats, beck).getMaxPrice());
+    }
+
+    /** Stats fed by hand, whose rebuild signals {@code reading} after its aggregate query and then waits. */
+    private CatalogStats racingStats(CountDownLatch reading, CountDownLatch proceed) {
+        BookRepository racing = Mockito.mock(BookRepository.class, AdditionalAnswers.delegatesTo(bookRepository));
+        Mockito.doAnswer(call -> {
+            List<AuthorPriceCountView> rows = bookRepository.countByAuthorAndPrice();
+            reading.countDown();
+            proceed.await();
+            return rows;
+        }).when(racing).countByAuthorAndPrice();
+        return new CatalogStats(racing, transactionManager, catalogVersion, true);
+    }
+
+    @Test
+    public void createCommittedWhileARebuildReads_isCountedOnce() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        CatalogStats racing = racingStats(reading, proceed);
+
+        Thread rebuild = Thread.ofVirtual().start(racing::rebuild);
+        assertTrue(reading.await(10, TimeUnit.SECONDS));
+        // commits after the rebuild's read, and is delivered before the rebuild swaps in
+        BookDTO created = bookService.createBook(new BookDTO(null, "Planning Extreme Programming", new AuthorDTO(beck.getId(), null, null, null), new BigDecimal("25.00")));
+        racing.onBookChanged(BookChangedEvent.created(created, 0L));
+        proceed.countDown();
+        rebuild.join();
+
+        CatalogStatsDTO stats = racing.stats();
+        assertEquals(4, stats.getBooks());
+        assertEquals(2, statsOf(stats, beck).getBooks());
+        assertFalse(racing.reconcile());
+    }
+
+    @Test
+    public void createDeliveredAfterARebuildThatReadIt_isCountedOnce() {
+        CountDownLatch proceed = new CountDownLatch(0);
+        CatalogStats racing = racingStats(new CountDownLatch(1), proceed);
+
+        // committed before the rebuild reads, but not delivered until after it swapped in
+        BookChangedEvent event = new TransactionTemplate(transactionManager).execute(status -> {
+            Book book = catalog.save("Extreme Programming Installed", beck, "35.00");
+            BookChangedEvent published = BookChangedEvent.created(
+                    new BookDTO(book.getId(), book.getTitle(), new AuthorDTO(beck.getId(), beck.getName(), null, null), book.getPrice()), 0L);
+            racing.onBookPublished(published);
+            return published;
+        });
+        racing.rebuild();
+        racing.onBookChanged(event);
+
+        CatalogStatsDTO stats = racing.stats();
+        assertEquals(4, stats.getBooks());
+        assertEquals(2, statsOf(stats, beck).getBooks());
+        assertFalse(racing.reconcile());
+    }
+
+    @Test
+    public void reconciliation_repairsDrift() {
+        long driftsBefore = catalogStats.stats().getDriftsDetected();
+        // a write that bypasses BookService publishes no event
+        catalog.save("Implementation Patterns", beck, "10.00");
+
+        assertTrue(catalogStats.reconcile());
+        CatalogStatsDTO stats = catalogStats.stats();
+        assertEquals(driftsBefore + 1, stats.getDriftsDetected());
+        assertEquals(2, statsOf(stats, beck).getBooks());
+        assertPrice("10.00", statsOf(stats, beck).getMinPrice());
+    }
+}
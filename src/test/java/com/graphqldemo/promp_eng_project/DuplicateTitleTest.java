@@ -0,0 +1,147 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.BookImportSummaryDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.entity.Book;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import com.graphqldemo.promp_eng_project.service.TitleBloomFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class DuplicateTitleTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private TitleBloomFilter titleBloomFilter;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Author fowler;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        Author author = new Author();
+        author.setName("Martin Fowler");
+        fowler = authorRepository.save(author);
+
+        Book book = new Book();
+        book.setTitle("Refactoring");
+        book.setAuthor(fowler);
+        book.setPrice(new BigDecimal("49.99"));
+        bookRepository.save(book);
+        titleBloomFilter.load();
+    }
+
+    private BookDTO book(String title) {
+        return new BookDTO(null, title, new AuthorDTO(fowler.getId(), null, null, null), new BigDecimal("29.99"));
+    }
+
+    @Test
+    public void newTitle_skipsTheDuplicateQuery() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        bookService.createBook(book("UML Distilled"));
+
+        // the author is loaded by id and the book inserted; no exists/select-by-title query runs
+        assertEquals(0, statistics.getQueryExecutionCount());
+        assertTrue(titleBloomFilter.mightContain("UML Distilled"));
+    }
+
+    @Test
+    public void existingTitle_isRejectedOnEveryPath() {
+        IllegalArgumentException created = assertThrows(IllegalArgumentException.class,
+                () -> bookService.createBook(book("Refactoring")));
+        assertEquals("Book with title 'Refactoring' already exists", created.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> bookService.addBook("Refactoring", "Martin Fowler", BigDecimal.TEN));
+        assertEquals(1, bookRepository.count());
+    }
+
+    @Test
+    public void titleUnknownToTheFilter_isCaughtByTheConstraint() {
+        // written behind the service's back, so the filter rules the title out and the insert hits the index
+        Book hidden = new Book();
+        hidden.setTitle("Analysis Patterns");
+        hidden.setAuthor(fowler);
+        hidden.setPrice(BigDecimal.ONE);
+        bookRepository.save(hidden);
+        assertFalse(titleBloomFilter.mightContain("Analysis Patterns"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> bookService.createBook(book("Analysis Patterns")));
+        assertEquals("Book with title 'Analysis Patterns' already exists", e.getMessage());
+    }
+
+    @Test
+    public void concurrentCreates_ofOneTitle_admitExactlyOne() throws Exception {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                attempts.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        bookService.createBook(book("Domain-Specific Languages"));
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        assertTrue(e.getMessage().contains("already exists"), e.getMessage());
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int created = 0;
+            for (Future<Boolean> attempt : attempts) {
+                if (attempt.get()) created++;
+            }
+            assertEquals(1, created);
+        }
+        assertEquals(2, bookRepository.count());
+    }
+
+    @Test
+    public void import_rejectsDuplicatesWithinAndAgainstTheCatalog() {
+        BookImportSummaryDTO summary = bookService.importBooks(List.of(
+                book("Refactoring"), book("NoSQL Distilled"), book("NoSQL Distilled")));
+
+        assertEquals(1, summary.getCreated());
+        assertEquals("Book with title 'Refactoring' already exists", summary.getResults().get(0).getError());
+        assertEquals("duplicate title in request", summary.getResults().get(2).getError());
+    }
+}
@@ -0,0 +1,228 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.GroupCommitStatsDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.entity.Book;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import com.graphqldemo.promp_eng_project.service.BookWriteBatcher;
+import com.graphqldemo.promp_eng_project.service.TitleBloomFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class GroupCommitTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private TitleBloomFilter titleBloomFilter;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private BookWriteBatcher batcher;
+    private Author fowler;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        Author author = new Author();
+        author.setName("Martin Fowler");
+        fowler = authorRepository.save(author);
+        titleBloomFilter.load();
+
+        // a generous window so requests released together reliably share a batch
+        batcher = new BookWriteBatcher(bookService, true, 50, Duration.ofMillis(200), Duration.ofSeconds(10));
+        batcher.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        batcher.stop();
+    }
+
+    private BookDTO book(String title) {
+        return new BookDTO(null, title, new AuthorDTO(fowler.getId(), null, null, null), new BigDecimal("29.99"));
+    }
+
+    /** Submits every book at once and returns each caller's book, or its error message. */
+    private List<Object> createConcurrently(List<BookDTO> books) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> calls = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (BookDTO book : books) {
+                calls.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        return batcher.createBook(book);
+                    } catch (IllegalArgumentException e) {
+                        return e.getMessage();
+                    }
+                }));
+            }
+            start.countDown();
+            List<Object> outcomes = new ArrayList<>();
+            for (Future<Object> call : calls) {
+                outcomes.add(call.get());
+            }
+            return outcomes;
+        }
+    }
+
+    @Test
+    public void concurrentCreates_shareTransactions() throws Exception {
+        List<BookDTO> books = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            books.add(book("Patterns, volume " + i));
+        }
+
+        List<Object> outcomes = createConcurrently(books);
+
+        for (int i = 0; i < books.size(); i++) {
+            BookDTO created = assertInstanceOf(BookDTO.class, outcomes.get(i));
+            assertNotNull(created.getId());
+            assertEquals("Patterns, volume " + i, created.getTitle());
+        }
+        assertEquals(20, bookRepository.count());
+        GroupCommitStatsDTO stats = batcher.stats();
+        assertEquals(20, stats.getRequests());
+        assertTrue(stats.getBatches() < 20, "batches: " + stats.getBatches());
+        assertEquals(0, stats.getFallbacks());
+    }
+
+    @Test
+    public void rejectedEntries_failAlone() throws Exception {
+        BookDTO negative = book("Negative Pricing");
+        negative.setPrice(new BigDecimal("-1"));
+        BookDTO orphan = new BookDTO(null, "Orphan", new AuthorDTO(Long.MAX_VALUE, null, null, null), BigDecimal.ONE);
+
+        List<Object> outcomes = createConcurrently(List.of(book("Refactoring"), negative, orphan, book("Refactoring")));
+
+        assertEquals("price must be non-negative", outcomes.get(1));
+        assertEquals("author not found", outcomes.get(2));
+        // whichever of the two reached the queue first wins
+        List<Object> sameTitle = List.of(outcomes.get(0), outcomes.get(3));
+        assertEquals(1, sameTitle.stream().filter(BookDTO.class::isInstance).count());
+        assertTrue(sameTitle.contains("Book with title 'Refactoring' already exists"), sameTitle.toString());
+        assertEquals(1, bookRepository.count());
+    }
+
+    @Test
+    public void namedAuthors_areCreatedPerBookAsInCreateBook() throws Exception {
+        AuthorDTO beck = new AuthorDTO(null, "Kent Beck", null, null);
+        List<Object> outcomes = createConcurrently(List.of(
+                new BookDTO(null, "Extreme Programming Explained", beck, BigDecimal.TEN),
+                new BookDTO(null, "Implementation Patterns", beck, BigDecimal.TEN),
+                new BookDTO(null, "NoSQL Distilled", new AuthorDTO(null, "Martin Fowler", null, null), BigDecimal.TEN)));
+
+        BookDTO first = assertInstanceOf(BookDTO.class, outcomes.get(0));
+        BookDTO second = assertInstanceOf(BookDTO.class, outcomes.get(1));
+        BookDTO third = assertInstanceOf(BookDTO.class, outcomes.get(2));
+        assertNotEquals(first.getAuthor().getId(), second.getAuthor().getId());
+        // not matched to the existing Martin Fowler either
+        assertNotEquals(fowler.getId(), third.getAuthor().getId());
+        assertEquals(4, authorRepository.count());
+    }
+
+    @Test
+    public void failedBatch_isRedoneOneByOne() throws Exception {
+        // written behind the service's back: the duplicate check misses it and the batch insert hits the index
+        Book hidden = new Book();
+        hidden.setTitle("Analysis Patterns");
+        hidden.setAuthor(fowler);
+        hidden.setPrice(BigDecimal.ONE);
+        bookRepository.save(hidden);
+
+        List<Object> outcomes = createConcurrently(List.of(book("Patterns of Enterprise Application Architecture"), book("Analysis Patterns"), book("Planning Extreme Programming")));
+
+        assertInstanceOf(BookDTO.class, outcomes.get(0));
+        assertEquals("Book with title 'Analysis Patterns' already exists", outcomes.get(1));
+        assertInstanceOf(BookDTO.class, outcomes.get(2));
+        assertEquals(3, bookRepository.count());
+        assertTrue(batcher.stats().getFallbacks() >= 1);
+    }
+
+    @Test
+    public void errorInCommit_failsOnlyThatBatch() {
+        BookService failing = Mockito.mock(BookService.class);
+        BookDTO created = new BookDTO(1L, "UML Distilled", null, BigDecimal.TEN);
+        Mockito.when(failing.createBooks(Mockito.anyList()))
+                .thenThrow(new StackOverflowError("simulated"))
+                .thenReturn(List.of(new BookService.Created(created, null)));
+        BookWriteBatcher committer = new BookWriteBatcher(failing, true, 50, Duration.ofMillis(1), Duration.ofSeconds(5));
+        committer.start();
+        try {
+            CompletionException e = assertThrows(CompletionException.class, () -> committer.createBook(book("UML Distilled")));
+            assertInstanceOf(StackOverflowError.class, e.getCause());
+            // the committer is still there for the next request
+            assertEquals(created, committer.createBook(book("UML Distilled")));
+        } finally {
+            committer.stop();
+        }
+    }
+
+    @Test
+    public void slowCommit_waitsForTheBatchButTimesOutWhatIsStillQueued() throws Exception {
+        BookService slow = Mockito.mock(BookService.class);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(slow.createBooks(Mockito.anyList())).thenAnswer(call -> {
+            writing.countDown();
+            release.await();
+            return List.of(new BookService.Created(null, "released"));
+        });
+        BookWriteBatcher committer = new BookWriteBatcher(slow, true, 1, Duration.ofMillis(1), Duration.ofMillis(100));
+        committer.start();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> inFlight = pool.submit(() -> {
+                try {
+                    return committer.createBook(book("Domain-Specific Languages"));
+                } catch (IllegalArgumentException e) {
+                    return e.getMessage();
+                }
+            });
+            writing.await();
+
+            // queued behind the stuck batch: withdrawn after the timeout, never written
+            assertThrows(BookWriteBatcher.QueueTimeoutException.class,
+                    () -> committer.createBook(book("Refactoring to Patterns")));
+
+            // already in the batch: still waiting past its timeout, then gets the batch's outcome
+            Thread.sleep(200);
+            assertFalse(inFlight.isDone());
+            release.countDown();
+            assertEquals("released", inFlight.get());
+            Mockito.verify(slow, Mockito.times(1)).createBooks(Mockito.anyList());
+        } finally {
+            release.countDown();
+            committer.stop();
+        }
+    }
+}
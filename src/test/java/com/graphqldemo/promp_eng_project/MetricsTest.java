@@ -0,0 +1,110 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.config.RequestMetricsFilter;
+import com.graphqldemo.promp_eng_project.config.SqlRecorder;
+import com.graphqldemo.promp_eng_project.dto.AuthorDTO;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.entity.Author;
+import com.graphqldemo.promp_eng_project.repository.AuthorRepository;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.BookService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+public class MetricsTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private Author author;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        Author a = new Author();
+        a.setName("Brendan Gregg");
+        author = authorRepository.save(a);
+    }
+
+    @Test
+    public void serviceMethodsAndTransactions_areTimed() {
+        bookService.createBook(new BookDTO(null, "Systems Performance",
+                new AuthorDTO(author.getId(), null, null, null), new BigDecimal("59.99")));
+
+        Timer method = meterRegistry.find("catalog.service").tag("method", "createBook").timer();
+        assertNotNull(method);
+        assertTrue(method.count() >= 1);
+        // p50/p95/p99 from application.properties
+        assertEquals(3, method.takeSnapshot().percentileValues().length);
+
+        Timer transaction = meterRegistry.find("catalog.transactions")
+                .tags("name", "BookService.createBook", "outcome", "commit", "read-only", "false")
+                .timer();
+        assertNotNull(transaction);
+        assertTrue(transaction.count() >= 1);
+    }
+
+    @Test
+    public void recorder_capturesTheSqlOfItsThread() {
+        SqlRecorder recorder = SqlRecorder.start();
+        try {
+            bookService.getAllBooks();
+        } finally {
+            SqlRecorder.stop();
+        }
+
+        assertEquals(1, recorder.getStatements());
+        assertTrue(recorder.getSql().get(0).contains("books"), recorder.getSql().toString());
+        assertTrue(recorder.getExecuteNanos() > 0);
+    }
+
+    @Test
+    public void slowRequests_areRecordedAndLoggedWithTheirSql(CapturedOutput output) throws Exception {
+        RequestMetricsFilter filter = new RequestMetricsFilter(meterRegistry, Duration.ZERO);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/all");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/books/all");
+            bookService.getAllBooks();
+        });
+
+        DistributionSummary statements = meterRegistry.find("catalog.request.sql.statements")
+                .tags("method", "GET", "uri", "/api/books/all")
+                .summary();
+        assertNotNull(statements);
+        assertEquals(1, statements.count());
+        assertEquals(1.0, statements.totalAmount());
+        assertTrue(output.getOut().contains("Slow request GET /api/books/all -> 200"), output.getOut());
+        assertTrue(output.getOut().contains("from books"), output.getOut());
+    }
+}
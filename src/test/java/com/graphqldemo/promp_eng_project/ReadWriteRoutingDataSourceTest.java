@@ -0,0 +1,140 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.config.ReadWriteRoutingDataSource;
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.service.BookCache;
+import com.graphqldemo.promp_eng_project.service.BookChangedEvent;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    // two embedded databases stand in for the primary and the replica
+    private final JdbcDataSource primary = h2("jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1");
+    private final JdbcDataSource replica = h2("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1");
+
+    private static JdbcDataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        return dataSource;
+    }
+
+    private static String urlOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private static String inTransaction(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        template.setReadOnly(readOnly);
+        return template.execute(status -> {
+            try {
+                return urlOf(dataSource);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Test
+    public void readOnlyTransactions_goToTheReplica() {
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, Duration.ofSeconds(30)));
+
+        assertTrue(inTransaction(routing, true).contains("routing_replica"));
+        assertTrue(inTransaction(routing, false).contains("routing_primary"));
+    }
+
+    @Test
+    public void connectionsOutsideTransactions_goToThePrimary() throws SQLException {
+        DataSource routing = new ReadWriteRoutingDataSource(primary, replica, Duration.ofSeconds(30));
+        assertTrue(urlOf(routing).contains("routing_primary"));
+    }
+
+    @Test
+    public void unavailableReplica_fallsBackToThePrimary() throws SQLException {
+        // IFEXISTS refuses to create the database, so every checkout fails like an unreachable replica
+        JdbcDataSource down = h2("jdbc:h2:mem:routing_missing;IFEXISTS=TRUE");
+        ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource(primary, down, Duration.ofSeconds(30));
+        DataSource routing = new LazyConnectionDataSourceProxy(router);
+
+        assertTrue(inTransaction(routing, true).contains("routing_primary"));
+        assertFalse(router.isReplicaAvailable());
+        assertTrue(inTransaction(routing, true).contains("routing_primary"));
+    }
+
+    @Test
+    public void replica_isUsedAgainOnceItRecovers() {
+        AtomicBoolean replicaDown = new AtomicBoolean(true);
+        DataSource flaky = new DelegatingDataSource(replica) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (replicaDown.get()) throw new SQLException("replica down");
+                return super.getConnection();
+            }
+        };
+        ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource(primary, flaky, Duration.ZERO);
+        DataSource routing = new LazyConnectionDataSourceProxy(router);
+
+        assertTrue(inTransaction(routing, true).contains("routing_primary"));
+        replicaDown.set(false);
+        assertTrue(inTransaction(routing, true).contains("routing_replica"));
+        assertTrue(router.isReplicaAvailable());
+    }
+
+    @Test
+    public void onPrimary_overridesReadOnlyRouting() {
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, Duration.ofSeconds(30)));
+
+        assertTrue(ReadWriteRoutingDataSource.onPrimary(() -> inTransaction(routing, true)).contains("routing_primary"));
+        assertTrue(inTransaction(routing, true).contains("routing_replica"));
+    }
+
+    @Test
+    public void cacheReloadsAfterAWrite_readThePrimaryWhileTheReplicaLags() {
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, Duration.ofSeconds(30)));
+        for (DataSource db : List.of(primary, replica)) {
+            JdbcTemplate jdbc = new JdbcTemplate(db);
+            jdbc.execute("CREATE TABLE IF NOT EXISTS lagging_books (id BIGINT PRIMARY KEY, price DECIMAL(10, 2))");
+            jdbc.update("MERGE INTO lagging_books KEY (id) VALUES (7, 40.00), (8, 30.00)");
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        readOnly.setReadOnly(true);
+        JdbcTemplate reads = new JdbcTemplate(routing);
+        BookCache cache = new BookCache(true, 100, Duration.ofMinutes(10), Duration.ofSeconds(30));
+        Function<Long, Optional<BookDTO>> loader = id -> readOnly.execute(status -> Optional.of(new BookDTO(id, "Book " + id, null,
+                reads.queryForObject("SELECT price FROM lagging_books WHERE id = ?", BigDecimal.class, id))));
+
+        assertEquals(new BigDecimal("40.00"), cache.getById(7L, loader).orElseThrow().getPrice());
+
+        // committed on the primary; the replica never catches up
+        new JdbcTemplate(primary).update("UPDATE lagging_books SET price = price / 2");
+        cache.onBookChanged(BookChangedEvent.updated(new BookDTO(7L, "Book 7", null, new BigDecimal("20.00"))));
+        assertEquals(new BigDecimal("20.00"), cache.getById(7L, loader).orElseThrow().getPrice());
+        // a key the write did not touch still reads the replica
+        assertEquals(new BigDecimal("30.00"), cache.getById(8L, loader).orElseThrow().getPrice());
+
+        cache.onBookChanged(BookChangedEvent.bulkUpdated());
+        assertEquals(new BigDecimal("15.00"), cache.getById(8L, loader).orElseThrow().getPrice());
+    }
+}
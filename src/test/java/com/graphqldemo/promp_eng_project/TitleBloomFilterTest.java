@@ -0,0 +1,64 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.BookChangedEvent;
+import com.graphqldemo.promp_eng_project.service.TitleBloomFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.stream.IntStream;
+
+import static com.graphqldemo.promp_eng_project.TitleRows.row;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TitleBloomFilterTest {
+
+    private static final int TITLES = 10_000;
+
+    private TitleBloomFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        BookRepository bookRepository = Mockito.mock(BookRepository.class);
+        Mockito.when(bookRepository.streamAllTitles()).thenAnswer(inv ->
+                IntStream.range(0, TITLES).mapToObj(i -> row(i, "Title " + i)));
+        filter = new TitleBloomFilter(bookRepository, Mockito.mock(PlatformTransactionManager.class), true, TITLES, 0.01);
+    }
+
+    @Test
+    public void everyTitleMightBePresent_untilLoaded() {
+        assertTrue(filter.mightContain("Never added"));
+    }
+
+    @Test
+    public void loadedTitles_areNeverRuledOut() {
+        filter.load();
+        for (int i = 0; i < TITLES; i++) {
+            assertTrue(filter.mightContain("Title " + i));
+        }
+    }
+
+    @Test
+    public void unseenTitles_areMostlyRuledOut() {
+        filter.load();
+        long falsePositives = IntStream.range(0, TITLES)
+                .filter(i -> filter.mightContain("Other " + i))
+                .count();
+        // sized for 1%; allow for variance
+        assertTrue(falsePositives < TITLES * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void createdTitles_areAdded() {
+        filter.load();
+        assertFalse(filter.mightContain("Refactoring"));
+        filter.onBookChanged(BookChangedEvent.created(new BookDTO(1L, "Refactoring", null, BigDecimal.TEN)));
+        assertTrue(filter.mightContain("Refactoring"));
+        // exact, like the unique constraint
+        assertFalse(filter.mightContain("refactoring"));
+    }
+}
@@ -0,0 +1,26 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.repository.BookTitleView;
+
+/**
+ * {@link BookTitleView} rows for feeding the title structures from a mocked {@code streamAllTitles()}.
+ */
+final class TitleRows {
+
+    private TitleRows() {
+    }
+
+    static BookTitleView row(long id, String title) {
+        return new BookTitleView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.service.BookChangedEvent;
+import com.graphqldemo.promp_eng_project.service.TitleSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.graphqldemo.promp_eng_project.TitleRows.row;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TitleSearchIndexTest {
+
+    private BookRepository bookRepository;
+    private TitleSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository = Mockito.mock(BookRepository.class);
+        Mockito.when(bookRepository.streamAllTitles()).thenAnswer(inv -> Stream.of(
+                row(1, "Refactoring"),
+                row(2, "Clean Code"),
+                row(3, "The Clean Coder"),
+                row(4, "Code Complete"),
+                row(5, "abcxbcd")));
+        index = new TitleSearchIndex(bookRepository, Mockito.mock(PlatformTransactionManager.class), true);
+    }
+
+    @Test
+    public void notReadyUntilBuilt() {
+        assertFalse(index.canAnswer("clean"));
+        index.rebuild();
+        assertTrue(index.canAnswer("clean"));
+        // fewer than three characters have no trigram to look up
+        assertFalse(index.canAnswer("cl"));
+    }
+
+    @Test
+    public void search_isCaseInsensitiveSubstringInIdOrder() {
+        index.rebuild();
+        assertEquals(List.of(2L, 3L, 4L), index.search("CODE", 10));
+        assertEquals(List.of(2L, 3L), index.search("clean cod", 10));
+        assertEquals(List.of(1L), index.search("factor", 10));
+        assertEquals(List.of(), index.search("missing", 10));
+    }
+
+    @Test
+    public void search_verifiesCandidatesAndHonoursLimit() {
+        index.rebuild();
+        // every trigram of "abcd" occurs in "abcxbcd", but the string does not
+        assertEquals(List.of(), index.search("abcd", 10));
+        assertEquals(List.of(2L), index.search("code", 1));
+    }
+
+    @Test
+    public void createdBooks_areSearchableWithoutRebuild() {
+        index.rebuild();
+        index.onBookChanged(BookChangedEvent.created(new BookDTO(9L, "Working Effectively with Legacy Code", null, BigDecimal.TEN)));
+        index.onBookChanged(BookChangedEvent.created(new BookDTO(7L, "Code Craft", null, BigDecimal.TEN)));
+        assertEquals(List.of(2L, 3L, 4L, 7L, 9L), index.search("code", 10));
+        assertEquals(List.of(9L), index.search("legacy", 10));
+    }
+}
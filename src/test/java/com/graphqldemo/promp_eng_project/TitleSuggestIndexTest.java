@@ -0,0 +1,86 @@
+package com.graphqldemo.promp_eng_project;
+
+import com.graphqldemo.promp_eng_project.dto.BookDTO;
+import com.graphqldemo.promp_eng_project.dto.BookSuggestionDTO;
+import com.graphqldemo.promp_eng_project.repository.BookRepository;
+import com.graphqldemo.promp_eng_project.repository.BookTitleView;
+import com.graphqldemo.promp_eng_project.service.BookChangedEvent;
+import com.graphqldemo.promp_eng_project.service.TitleSuggestIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.graphqldemo.promp_eng_project.TitleRows.row;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TitleSuggestIndexTest {
+
+    private final List<BookTitleView> rows = new ArrayList<>();
+    private TitleSuggestIndex index;
+
+    private List<String> titles(String prefix, int limit) {
+        return index.suggest(prefix, limit).stream().map(BookSuggestionDTO::getTitle).collect(Collectors.toList());
+    }
+
+    private void created(long id, String title) {
+        index.onBookChanged(BookChangedEvent.created(new BookDTO(id, title, null, BigDecimal.ONE)));
+    }
+
+    @BeforeEach
+    public void setUp() {
+        // enough titles to span several front-coded blocks
+        for (int i = 0; i < 100; i++) {
+            rows.add(row(i + 1, String.format("Java Volume %03d", i)));
+        }
+        rows.add(row(200, "Effective Java"));
+        rows.add(row(201, "Java Concurrency in Practice"));
+        rows.add(row(202, "JavaScript: The Good Parts"));
+
+        BookRepository bookRepository = Mockito.mock(BookRepository.class);
+        Mockito.when(bookRepository.streamAllTitles()).thenAnswer(inv -> rows.stream());
+        index = new TitleSuggestIndex(bookRepository, Mockito.mock(PlatformTransactionManager.class), true);
+        index.rebuild();
+    }
+
+    @Test
+    public void suggest_returnsTitlesWithPrefixInOrder() {
+        assertEquals(List.of("Java Concurrency in Practice", "Java Volume 000", "Java Volume 001"), titles("java ", 3));
+        assertEquals(List.of("Java Volume 042"), titles("JAVA VOLUME 042", 5));
+        assertEquals(List.of("JavaScript: The Good Parts"), titles("javas", 5));
+        assertEquals(List.of("Effective Java"), titles("e", 5));
+        assertEquals(List.of(), titles("kotlin", 5));
+    }
+
+    @Test
+    public void createdTitles_showUpWithoutRebuild() {
+        created(300, "Java Puzzlers");
+        created(301, "Java 8 in Action");
+        assertEquals(List.of("Java 8 in Action", "Java Concurrency in Practice", "Java Puzzlers"), titles("java ", 3));
+        assertEquals(104, titles("java", 200).size());
+    }
+
+    @Test
+    public void suggestions_stayCorrectAcrossCompaction() {
+        for (int i = 0; i < 5000; i++) {
+            created(1000 + i, String.format("Kotlin %04d", i));
+        }
+        assertEquals(List.of("Kotlin 0000", "Kotlin 0001"), titles("kotlin", 2));
+        assertEquals(List.of("Kotlin 4999"), titles("kotlin 4999", 5));
+        assertEquals(List.of(1000L + 2500), index.suggest("kotlin 2500", 5).stream().map(BookSuggestionDTO::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void rebuild_replacesDeltaEntriesWithDatabaseState() {
+        created(400, "Groovy in Action");
+        assertEquals(List.of("Groovy in Action"), titles("groovy", 5));
+        // the book was never committed to the database the rebuild reads
+        index.rebuild();
+        assertEquals(List.of(), titles("groovy", 5));
+    }
+}